@@ -0,0 +1,65 @@
+package org.example.models;
+
+/**
+ * Tailles de grille communes aux benchmarks : les trois niveaux classiques et deux grilles carrées
+ * synthétiques de 1000 et 10000 cases de côté, à la densité du niveau intermédiaire.
+ * Toutes les dispositions sont générées avec une graine fixe.
+ */
+final class BenchmarkBoards {
+
+    static final long SEED = 20250101L;
+
+    // Densité de mines des grilles synthétiques, proche de celle du niveau intermédiaire
+    private static final double SYNTHETIC_DENSITY = 0.15;
+
+    private BenchmarkBoards() {
+    }
+
+    /**
+     * @param size Le nom d'un niveau ({@code beginner}, {@code intermediate}, {@code expert}) ou le côté d'une grille carrée.
+     * @return Le niveau correspondant.
+     */
+    static Level level(String size) {
+        return switch (size) {
+            case "beginner" -> Level.getBeginner();
+            case "intermediate" -> Level.getIntermediate();
+            case "expert" -> Level.getExpert();
+            default -> {
+                int side = Integer.parseInt(size);
+                yield new Level(side, side, (int) ((long) side * side * SYNTHETIC_DENSITY), size + "x" + size);
+            }
+        };
+    }
+
+    /**
+     * @return La disposition de mines du niveau pour la graine fixe.
+     */
+    static int[] layout(Level level) {
+        return MineLayoutGenerator.floyd().generate(level, SEED);
+    }
+
+    /**
+     * Cherche la case vide dont l'ouverture produit la plus grande cascade. Chaque case n'est ouverte
+     * qu'une fois sur une grille de travail, le coût est donc linéaire.
+     *
+     * @return L'indice de la case, ou -1 si la grille n'a aucune case vide.
+     */
+    static int largestCascadeStart(Level level, int[] layout) {
+        Board scratch = new Board(level.getWidth(), level.getHeight(), layout);
+        int[] size = new int[1];
+        int best = -1;
+        int bestSize = 0;
+        for (int index = 0; index < scratch.getCellCount(); index++) {
+            if (scratch.isOpened(index) || scratch.hasMine(index) || scratch.getNeighbourMineCount(index) != 0) {
+                continue;
+            }
+            size[0] = 0;
+            scratch.revealFields(scratch.xOf(index), scratch.yOf(index), cell -> size[0]++);
+            if (size[0] > bestSize) {
+                bestSize = size[0];
+                best = index;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction d'une grille, calcul en masse des mines voisines, {@link Board#hasWon()} et {@link Board#flagField(int, int)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class BoardBenchmark {
+
+    @Param({"beginner", "intermediate", "expert", "1000", "10000"})
+    public String size;
+
+    private Level level;
+    private int[] layout;
+    private byte[] cells;
+    private Board board;
+    private int flagIndex;
+
+    @Setup
+    public void setUp() {
+        level = BenchmarkBoards.level(size);
+        layout = BenchmarkBoards.layout(level);
+        cells = new byte[level.getWidth() * level.getHeight()];
+        for (int index : layout) {
+            cells[index] = (byte) Board.MINE;
+        }
+        board = new Board(level.getWidth(), level.getHeight(), layout);
+        flagIndex = layout.length > 0 ? layout[layout.length / 2] : 0;
+    }
+
+    @Benchmark
+    public Board construct() {
+        return new Board(level.getWidth(), level.getHeight(), layout);
+    }
+
+    /**
+     * Calcul des mines voisines seul, tel qu'appelé par le constructeur. Le calcul est idempotent :
+     * seuls les bits de compte des cases sans mine sont réécrits.
+     */
+    @Benchmark
+    public byte[] neighbourMineCounts() {
+        NeighbourCounter.countAll(cells, level.getWidth(), level.getHeight());
+        return cells;
+    }
+
+    @Benchmark
+    public boolean hasWon() {
+        return board.hasWon();
+    }
+
+    /**
+     * Chaque appel pose ou retire le drapeau, la grille alterne donc entre deux états.
+     */
+    @Benchmark
+    public int flagField() {
+        board.flagField(board.xOf(flagIndex), board.yOf(flagIndex));
+        return board.getFlagCount();
+    }
+}
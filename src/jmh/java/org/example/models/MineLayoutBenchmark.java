@@ -0,0 +1,52 @@
+package org.example.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération des dispositions de mines par échantillonnage de Floyd, avec et sans premier clic protégé.
+ * Les graines se suivent à partir d'une graine fixe pour que deux exécutions mesurent les mêmes dispositions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class MineLayoutBenchmark {
+
+    @Param({"beginner", "intermediate", "expert", "1000", "10000"})
+    public String size;
+
+    private final MineLayoutGenerator generator = MineLayoutGenerator.floyd();
+    private Level level;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        level = BenchmarkBoards.level(size);
+        seed = BenchmarkBoards.SEED;
+    }
+
+    @Benchmark
+    public int[] generate() {
+        return generator.generate(level, seed++);
+    }
+
+    @Benchmark
+    public int[] generateSafe() {
+        return generator.generateSafe(level.getWidth(), level.getHeight(), level.getMineCount(), seed++,
+                level.getWidth() / 2, level.getHeight() / 2);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ouverture d'une case numérotée et de la plus grande cascade de la grille.
+ * Pour mesurer toujours la même opération, les cases ouvertes sont refermées après chaque appel ;
+ * ce coût, linéaire en nombre de cases ouvertes, est inclus dans la mesure.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class RevealBenchmark {
+
+    @Param({"beginner", "intermediate", "expert", "1000", "10000"})
+    public String size;
+
+    private Board board;
+    private int[] numberedCells;
+    private int nextNumbered;
+    private int cascadeStart;
+
+    @Setup
+    public void setUp() {
+        Level level = BenchmarkBoards.level(size);
+        int[] layout = BenchmarkBoards.layout(level);
+        board = new Board(level.getWidth(), level.getHeight(), layout);
+        cascadeStart = BenchmarkBoards.largestCascadeStart(level, layout);
+
+        // Jusqu'à 4096 cases numérotées, parcourues à tour de rôle
+        int[] candidates = new int[4096];
+        int count = 0;
+        for (int index = 0; index < board.getCellCount() && count < candidates.length; index++) {
+            if (!board.hasMine(index) && board.getNeighbourMineCount(index) > 0) {
+                candidates[count++] = index;
+            }
+        }
+        numberedCells = Arrays.copyOf(candidates, count);
+    }
+
+    @Benchmark
+    public RevealFieldsResult revealSingleCell() {
+        int index = numberedCells[nextNumbered];
+        nextNumbered = nextNumbered + 1 == numberedCells.length ? 0 : nextNumbered + 1;
+        RevealFieldsResult result = board.revealFields(board.xOf(index), board.yOf(index));
+        board.setOpened(index, false);
+        return result;
+    }
+
+    @Benchmark
+    public RevealFieldsResult revealLargeCascade() {
+        RevealFieldsResult result = board.revealFields(board.xOf(cascadeStart), board.yOf(cascadeStart));
+        close(result);
+        return result;
+    }
+
+    private void close(RevealFieldsResult result) {
+        int count = result.getRevealedCount();
+        for (int position = 0; position < count; position++) {
+            board.setOpened(result.getRevealedIndex(position), false);
+        }
+    }
+}
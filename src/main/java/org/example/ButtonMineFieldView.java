@@ -0,0 +1,149 @@
+package org.example;
+
+import org.example.models.Board;
+import org.example.models.Field;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Champ de mines affiché sous forme d'une grille de boutons, un par case.
+ * Adapté aux petits niveaux ; au-delà de quelques milliers de cases, {@link MineFieldCanvas} est préférable.
+ */
+class ButtonMineFieldView implements MineFieldView {
+
+    private final JPanel panel;
+    private final JButton[][] buttons;
+    private final boolean debugMode;
+    private Board board;
+
+    /**
+     * @param board     La grille à afficher.
+     * @param handler   Le gestionnaire des clics sur les cases.
+     * @param debugMode true pour afficher les mines des cases fermées.
+     */
+    ButtonMineFieldView(Board board, CellMouseHandler handler, boolean debugMode) {
+        this.board = board;
+        this.debugMode = debugMode;
+        panel = new JPanel(new GridLayout(board.getHeight(), board.getWidth()));
+        buttons = new JButton[board.getWidth()][board.getHeight()];
+
+        // Création des boutons pour chaque cellule du champ de mines
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                JButton button = new JButton();
+                button.setPreferredSize(new Dimension(30, 30));
+                button.addMouseListener(new FieldMouseListener(x, y, handler));
+                buttons[x][y] = button;
+                panel.add(button);
+            }
+        }
+    }
+
+    @Override
+    public JComponent getComponent() {
+        return panel;
+    }
+
+    @Override
+    public void setBoard(Board board) {
+        this.board = board;
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                buttons[x][y].setEnabled(true);
+                refreshCell(x, y);
+            }
+        }
+    }
+
+    @Override
+    public void refreshCell(int x, int y) {
+        updateButton(buttons[x][y], board.getField(x, y));
+    }
+
+    @Override
+    public void refreshRegion(int minX, int minY, int maxX, int maxY) {
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                refreshCell(x, y);
+            }
+        }
+    }
+
+    @Override
+    public void refreshAll() {
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                refreshCell(x, y);
+            }
+        }
+    }
+
+    @Override
+    public void revealMines() {
+        for (Field field : board.getMines()) {
+            JButton button = buttons[field.getX()][field.getY()];
+            button.setText("💣");
+            button.setEnabled(false);
+        }
+    }
+
+    @Override
+    public void setInputEnabled(boolean enabled) {
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                buttons[x][y].setEnabled(enabled);
+            }
+        }
+    }
+
+    /**
+     * Met à jour l'affichage d'un bouton en fonction de l'état du champ de mines associé.
+     * Si le champ a été ouvert, affiche le nombre de mines voisines ou une mine si présente.
+     * Si le champ est marqué, affiche un drapeau.
+     *
+     * @param button Le bouton à mettre à jour.
+     * @param field Le champ correspondant à ce bouton.
+     */
+    private void updateButton(JButton button, Field field) {
+        if (field.isOpened()) {
+            if (field.hasMine()) {
+                button.setText("💣");
+            } else {
+                int neighbourMines = field.getNeighbourMineCount();
+                button.setText(neighbourMines > 0 ? String.valueOf(neighbourMines) : "");
+            }
+            button.setEnabled(false);
+        } else if (field.hasFlag()) {
+            button.setText("🏴");
+        } else {
+            button.setText("");
+        }
+
+        if (debugMode && field.hasMine()) {
+            button.setText("💣");
+        }
+    }
+
+    /**
+     * Transmet les clics d'un bouton au gestionnaire, avec la position de sa case.
+     */
+    private static class FieldMouseListener extends MouseAdapter {
+        private final int x;
+        private final int y;
+        private final CellMouseHandler handler;
+
+        FieldMouseListener(int x, int y, CellMouseHandler handler) {
+            this.x = x;
+            this.y = y;
+            this.handler = handler;
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            handler.cellPressed(x, y, e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+/**
+ * Chronomètre d'une partie, à la milliseconde. Il démarre au premier coup joué et ne compte pas les pauses.
+ * Utilisé sur l'EDT uniquement.
+ */
+class GameClock {
+
+    private long offsetMillis;
+    private long startNanos = -1;
+    private long pausedSinceNanos = -1;
+    private long pausedNanos;
+
+    /**
+     * Remet le chronomètre à zéro, ou au temps déjà joué d'une partie reprise.
+     *
+     * @param offsetMillis Le temps déjà joué, en millisecondes.
+     */
+    void reset(long offsetMillis) {
+        this.offsetMillis = offsetMillis;
+        this.startNanos = -1;
+        this.pausedSinceNanos = -1;
+        this.pausedNanos = 0;
+    }
+
+    /**
+     * Démarre le chronomètre s'il ne l'est pas encore.
+     */
+    void start() {
+        if (startNanos < 0) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    void pause() {
+        if (startNanos >= 0 && pausedSinceNanos < 0) {
+            pausedSinceNanos = System.nanoTime();
+        }
+    }
+
+    void resume() {
+        if (pausedSinceNanos >= 0) {
+            pausedNanos += System.nanoTime() - pausedSinceNanos;
+            pausedSinceNanos = -1;
+        }
+    }
+
+    /**
+     * @return Le temps de jeu, pauses exclues, en millisecondes.
+     */
+    long getElapsedMillis() {
+        if (startNanos < 0) {
+            return offsetMillis;
+        }
+        long end = pausedSinceNanos >= 0 ? pausedSinceNanos : System.nanoTime();
+        return offsetMillis + (end - startNanos - pausedNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Atlas de glyphes pré-rendus pour le dessin du champ de mines.
+ * Tous les états possibles d'une case sont dessinés une seule fois, côte à côte, dans une même image ;
+ * afficher une case revient ensuite à copier un carré de cette image.
+ */
+class GlyphAtlas {
+
+    // Glyphes 0 à 8 : case ouverte avec ce nombre de mines voisines
+    static final int CLOSED = 9;
+    static final int FLAG = 10;
+    static final int MINE = 11;
+    static final int EXPLODED = 12;
+    private static final int GLYPH_COUNT = 13;
+
+    private static final Color[] NUMBER_COLORS = {
+            null, Color.BLUE, new Color(0, 128, 0), Color.RED, new Color(0, 0, 128),
+            new Color(128, 0, 0), new Color(0, 128, 128), Color.BLACK, Color.GRAY
+    };
+
+    private final int cellSize;
+    private final BufferedImage image;
+
+    /**
+     * @param cellSize La taille, en pixels, du côté d'une case.
+     */
+    GlyphAtlas(int cellSize) {
+        this.cellSize = cellSize;
+        this.image = new BufferedImage(cellSize * GLYPH_COUNT, cellSize, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        for (int glyph = 0; glyph < GLYPH_COUNT; glyph++) {
+            Graphics2D cell = (Graphics2D) g.create(glyph * cellSize, 0, cellSize, cellSize);
+            renderGlyph(cell, glyph);
+            cell.dispose();
+        }
+        g.dispose();
+    }
+
+    int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Dessine un glyphe à la position donnée.
+     *
+     * @param g     Le contexte graphique de destination.
+     * @param glyph L'identifiant du glyphe.
+     * @param x     La position horizontale, en pixels, du coin supérieur gauche.
+     * @param y     La position verticale, en pixels, du coin supérieur gauche.
+     */
+    void draw(Graphics g, int glyph, int x, int y) {
+        int source = glyph * cellSize;
+        g.drawImage(image, x, y, x + cellSize, y + cellSize, source, 0, source + cellSize, cellSize, null);
+    }
+
+    private void renderGlyph(Graphics2D g, int glyph) {
+        int size = cellSize;
+        if (glyph == CLOSED || glyph == FLAG) {
+            g.setColor(new Color(192, 192, 192));
+            g.fillRect(0, 0, size, size);
+            g.setColor(Color.WHITE);
+            g.drawLine(0, 0, size - 1, 0);
+            g.drawLine(0, 0, 0, size - 1);
+            g.setColor(Color.DARK_GRAY);
+            g.drawLine(size - 1, 0, size - 1, size - 1);
+            g.drawLine(0, size - 1, size - 1, size - 1);
+            if (glyph == FLAG) {
+                g.setColor(Color.RED);
+                g.fillPolygon(new int[]{size / 3, size * 3 / 4, size / 3}, new int[]{size / 5, size * 2 / 5, size * 3 / 5}, 3);
+                g.setColor(Color.BLACK);
+                g.drawLine(size / 3, size / 5, size / 3, size * 4 / 5);
+            }
+            return;
+        }
+
+        g.setColor(glyph == EXPLODED ? Color.RED : new Color(224, 224, 224));
+        g.fillRect(0, 0, size, size);
+        g.setColor(Color.GRAY);
+        g.drawRect(0, 0, size - 1, size - 1);
+        if (glyph == MINE || glyph == EXPLODED) {
+            g.setColor(Color.BLACK);
+            int diameter = Math.max(2, size / 2);
+            g.fillOval((size - diameter) / 2, (size - diameter) / 2, diameter, diameter);
+        } else if (glyph > 0 && size >= 6) {
+            g.setColor(NUMBER_COLORS[glyph]);
+            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, Math.max(6, size * 2 / 3)));
+            FontMetrics metrics = g.getFontMetrics();
+            String text = String.valueOf(glyph);
+            g.drawString(text, (size - metrics.stringWidth(text)) / 2, (size - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
+    }
+}
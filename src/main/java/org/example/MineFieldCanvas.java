@@ -0,0 +1,122 @@
+package org.example;
+
+import org.example.models.Board;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Champ de mines dessiné par un composant unique.
+ * Chaque case est copiée depuis un {@link GlyphAtlas} ; seules les cases comprises dans la zone
+ * de découpage sont dessinées, et une révélation ne redessine que le rectangle qui englobe
+ * les cases modifiées. Les clics sont convertis en cases par simple division des coordonnées.
+ */
+class MineFieldCanvas extends JComponent implements MineFieldView {
+
+    private final GlyphAtlas atlas;
+    private final boolean debugMode;
+    private final JScrollPane scrollPane;
+    private Board board;
+    private boolean minesRevealed;
+    private boolean inputEnabled = true;
+
+    /**
+     * @param board     La grille à afficher.
+     * @param handler   Le gestionnaire des clics sur les cases.
+     * @param debugMode true pour afficher les mines des cases fermées.
+     * @param cellSize  La taille, en pixels, du côté d'une case.
+     */
+    MineFieldCanvas(Board board, CellMouseHandler handler, boolean debugMode, int cellSize) {
+        this.board = board;
+        this.debugMode = debugMode;
+        this.atlas = new GlyphAtlas(cellSize);
+        setOpaque(true);
+        setPreferredSize(new Dimension(board.getWidth() * cellSize, board.getHeight() * cellSize));
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int x = e.getX() / atlas.getCellSize();
+                int y = e.getY() / atlas.getCellSize();
+                if (inputEnabled && MineFieldCanvas.this.board.contains(x, y)) {
+                    handler.cellPressed(x, y, e);
+                }
+            }
+        });
+        scrollPane = new JScrollPane(this);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(cellSize);
+        scrollPane.getHorizontalScrollBar().setUnitIncrement(cellSize);
+    }
+
+    @Override
+    public JComponent getComponent() {
+        return scrollPane;
+    }
+
+    @Override
+    public void setBoard(Board board) {
+        this.board = board;
+        this.minesRevealed = false;
+        repaint();
+    }
+
+    @Override
+    public void refreshCell(int x, int y) {
+        int cellSize = atlas.getCellSize();
+        repaint(x * cellSize, y * cellSize, cellSize, cellSize);
+    }
+
+    @Override
+    public void refreshRegion(int minX, int minY, int maxX, int maxY) {
+        int cellSize = atlas.getCellSize();
+        repaint(minX * cellSize, minY * cellSize, (maxX - minX + 1) * cellSize, (maxY - minY + 1) * cellSize);
+    }
+
+    @Override
+    public void refreshAll() {
+        repaint();
+    }
+
+    @Override
+    public void revealMines() {
+        minesRevealed = true;
+        repaint();
+    }
+
+    @Override
+    public void setInputEnabled(boolean enabled) {
+        this.inputEnabled = enabled;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int cellSize = atlas.getCellSize();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int minX = Math.max(0, clip.x / cellSize);
+        int minY = Math.max(0, clip.y / cellSize);
+        int maxX = Math.min(board.getWidth() - 1, (clip.x + clip.width - 1) / cellSize);
+        int maxY = Math.min(board.getHeight() - 1, (clip.y + clip.height - 1) / cellSize);
+
+        for (int y = minY; y <= maxY; y++) {
+            int index = board.indexOf(minX, y);
+            for (int x = minX; x <= maxX; x++, index++) {
+                atlas.draw(g, glyphFor(index), x * cellSize, y * cellSize);
+            }
+        }
+    }
+
+    private int glyphFor(int index) {
+        boolean mine = board.hasMine(index);
+        if (board.isOpened(index)) {
+            return mine ? GlyphAtlas.EXPLODED : board.getNeighbourMineCount(index);
+        }
+        if (mine && (minesRevealed || debugMode)) {
+            return GlyphAtlas.MINE;
+        }
+        return board.hasFlag(index) ? GlyphAtlas.FLAG : GlyphAtlas.CLOSED;
+    }
+}
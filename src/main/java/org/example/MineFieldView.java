@@ -0,0 +1,65 @@
+package org.example;
+
+import org.example.models.Board;
+
+import javax.swing.*;
+import java.awt.event.MouseEvent;
+
+/**
+ * Vue du champ de mines : affiche l'état d'un {@link Board} et transmet les clics sur les cases.
+ * Deux implémentations existent : une grille de boutons pour les petits niveaux,
+ * et un composant unique dessiné à partir d'un atlas de glyphes pour les grandes grilles.
+ */
+interface MineFieldView {
+
+    /**
+     * Gestionnaire des clics de souris sur une case.
+     */
+    @FunctionalInterface
+    interface CellMouseHandler {
+
+        /**
+         * @param x La position horizontale de la case cliquée.
+         * @param y La position verticale de la case cliquée.
+         * @param e L'événement de la souris.
+         */
+        void cellPressed(int x, int y, MouseEvent e);
+    }
+
+    /**
+     * @return Le composant à ajouter à la fenêtre.
+     */
+    JComponent getComponent();
+
+    /**
+     * Remplace la grille affichée et redessine toutes les cases.
+     *
+     * @param board La nouvelle grille, de mêmes dimensions.
+     */
+    void setBoard(Board board);
+
+    /**
+     * Met à jour l'affichage d'une case.
+     */
+    void refreshCell(int x, int y);
+
+    /**
+     * Met à jour l'affichage du rectangle de cases [minX, maxX] x [minY, maxY].
+     */
+    void refreshRegion(int minX, int minY, int maxX, int maxY);
+
+    /**
+     * Met à jour l'affichage de toutes les cases.
+     */
+    void refreshAll();
+
+    /**
+     * Affiche toutes les mines, à la fin d'une partie perdue.
+     */
+    void revealMines();
+
+    /**
+     * Active ou désactive les clics sur le champ de mines.
+     */
+    void setInputEnabled(boolean enabled);
+}
@@ -1,30 +1,92 @@
 package org.example;
 
 
+import org.example.metrics.Metrics;
 import org.example.models.*;
+import org.example.solver.NoGuessGenerator;
+import org.example.storage.BoardFile;
+import org.example.storage.GameResult;
+import org.example.storage.MoveJournal;
+import org.example.storage.SavedGame;
+import org.example.storage.ScoreStore;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class MinesweeperGUI extends JFrame {
+
+    // Au-delà de ce nombre de cases, le champ de mines est dessiné par un composant unique plutôt que par des boutons
+    private static final int CANVAS_CELL_THRESHOLD = 50 * 50;
+
+    // Taille en pixels d'une case dessinée sur le canevas
+    private static final int CANVAS_CELL_SIZE = 16;
+
+    // Générateur des grilles résolubles sans hasard, partagé par toutes les parties
+    private static final NoGuessGenerator NO_GUESS_GENERATOR = new NoGuessGenerator();
+
+    // Journal des coups de la partie en cours, remplacé à chaque nouvelle partie
+    private static final Path JOURNAL_PATH = Path.of(System.getProperty("user.home"), ".demineur", "partie-en-cours.journal");
+
+    // Nombre de parties affichées par le bouton des scores
+    private static final int LEADERBOARD_SIZE = 10;
+
+    // Classement local, ouvert en arrière-plan et partagé par toutes les fenêtres
+    private static final CompletableFuture<ScoreStore> SCORES = CompletableFuture.supplyAsync(() -> {
+        Path path = Path.of(System.getProperty("user.home"), ".demineur", "scores.log");
+        try {
+            Files.createDirectories(path.getParent());
+            ScoreStore store = ScoreStore.open(path);
+            // EXIT_ON_CLOSE arrête la JVM sans attendre le thread d'écriture : les résultats en file sont écrits à l'arrêt
+            Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().name("score-store-close").unstarted(() -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    System.err.println("Scores not closed: " + e.getMessage());
+                }
+            }));
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    });
+
+    private final Level level;
+    // Lu par le thread des coups au premier clic
+    private volatile MineLayoutGenerator mineLayoutGenerator = MineLayoutGenerator.floyd();
     private Board board;
-    private JPanel mineFieldPanel;
-    private JButton[][] buttons;
+    private long seed;
+    private MineFieldView mineFieldView;
+    private MoveProcessor moveProcessor;
     private boolean debugMode = false;
     private Timer timer;
     private int timeElapsed;
+    private final GameClock clock = new GameClock();
     private JLabel timeLabel;
     private JLabel scoreLabel;
+    private JLabel minesLabel;
+    private JProgressBar progressBar;
     private JButton startButton;
     private JButton pauseButton;
     private JButton resetButton;
+    private JButton saveButton;
+    private JButton loadButton;
+    private JButton scoresButton;
+    private JCheckBox noGuessCheckBox;
+    // Vrai si le mode sans hasard n'a pas trouvé de grille résoluble pour la partie en cours
+    private boolean ordinaryLayoutFallback;
     private boolean gamePaused;
     private int score;
     private boolean gameOver = false; // Ajouté pour savoir si la partie est terminée
@@ -36,41 +98,52 @@ public class MinesweeperGUI extends JFrame {
      * @param level Le niveau du jeu, qui détermine les dimensions du champ de mines et le nombre de mines.
      */
     public MinesweeperGUI(Level level) {
-        board = new Board(level.getWidth(), level.getHeight(), generateMines(level.getMineCount(), level.getWidth(), level.getHeight()));
-        setTitle("Démineur - " + level.getLabel());
+        this.level = level;
+        moveProcessor = new MoveProcessor(this::placeMinesAround, this::applyBatch, this::showProgress);
+        newGame(ThreadLocalRandom.current().nextLong());
         setSize(500, 500);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        mineFieldPanel = new JPanel(new GridLayout(level.getHeight(), level.getWidth()));
-        buttons = new JButton[level.getWidth()][level.getHeight()];
-
-        // Création des boutons pour chaque cellule du champ de mines
-        for (int x = 0; x < level.getWidth(); x++) {
-            for (int y = 0; y < level.getHeight(); y++) {
-                JButton button = new JButton();
-                button.setPreferredSize(new Dimension(30, 30));
-                button.addMouseListener(new FieldMouseListener(x, y));
-                buttons[x][y] = button;
-                mineFieldPanel.add(button);
-            }
+        // Création du champ de mines : des boutons pour les petits niveaux, un canevas pour les grandes grilles
+        if ((long) level.getWidth() * level.getHeight() <= CANVAS_CELL_THRESHOLD) {
+            mineFieldView = new ButtonMineFieldView(board, this::cellPressed, debugMode);
+        } else {
+            mineFieldView = new MineFieldCanvas(board, this::cellPressed, debugMode, CANVAS_CELL_SIZE);
         }
 
-        add(mineFieldPanel, BorderLayout.CENTER);
+        add(mineFieldView.getComponent(), BorderLayout.CENTER);
 
         // Ajout du minuteur et des boutons de contrôle
         timeLabel = new JLabel("Temps écoulé: 0 s");
         scoreLabel = new JLabel("Score: 0");
+        minesLabel = new JLabel();
+        updateMinesLabel();
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
         startButton = new JButton("Démarrer");
         pauseButton = new JButton("Pause");
         resetButton = new JButton("Réinitialiser");
+        saveButton = new JButton("Sauvegarder");
+        loadButton = new JButton("Charger");
+        scoresButton = new JButton("Scores");
+        noGuessCheckBox = new JCheckBox("Sans hasard");
+        noGuessCheckBox.setToolTipText("Les grilles se résolvent à partir du premier clic sans jamais deviner");
 
         JPanel controlPanel = new JPanel();
         controlPanel.add(timeLabel);
         controlPanel.add(scoreLabel);
+        controlPanel.add(minesLabel);
+        controlPanel.add(progressBar);
         controlPanel.add(startButton);
         controlPanel.add(pauseButton);
         controlPanel.add(resetButton);
+        controlPanel.add(saveButton);
+        controlPanel.add(loadButton);
+        controlPanel.add(scoresButton);
+        controlPanel.add(noGuessCheckBox);
 
         add(controlPanel, BorderLayout.SOUTH);
 
@@ -89,6 +162,7 @@ public class MinesweeperGUI extends JFrame {
             public void actionPerformed(ActionEvent e) {
                 if (!timer.isRunning()) {
                     timer.start();
+                    clock.resume();
                     gamePaused = false;
                     enableFieldButtons(true);
                     gameOver = false; // Réinitialiser l'état du jeu
@@ -101,6 +175,7 @@ public class MinesweeperGUI extends JFrame {
             public void actionPerformed(ActionEvent e) {
                 if (timer.isRunning()) {
                     timer.stop();
+                    clock.pause();
                     gamePaused = true;
                     enableFieldButtons(false);
                 }
@@ -116,181 +191,395 @@ public class MinesweeperGUI extends JFrame {
                 score = 0;
                 scoreLabel.setText("Score: 0");
                 resetGame();
+                updateMinesLabel();
                 enableFieldButtons(true);
                 gameOver = false; // Réinitialiser l'état du jeu
             }
         });
+
+        saveButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                saveGame();
+            }
+        });
+
+        loadButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                loadGame();
+            }
+        });
+
+        scoresButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showLeaderboard();
+            }
+        });
+
+        // Le mode s'applique au prochain premier clic
+        noGuessCheckBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                mineLayoutGenerator = noGuessCheckBox.isSelected() ? NO_GUESS_GENERATOR : MineLayoutGenerator.floyd();
+            }
+        });
+
+        // Le journal est vidé et fermé avant la fin du programme
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                moveProcessor.close();
+            }
+        });
     }
 
     /**
-     * Génère un ensemble de mines à des positions aléatoires sur le champ de mines.
+     * Prépare une nouvelle partie à partir d'une graine.
+     * Les mines sont placées une première fois, puis replacées avec la même graine au premier clic
+     * en excluant le voisinage de la case cliquée. La partie est donc entièrement déterminée par
+     * la graine et la position du premier clic.
      *
-     * @param mineCount Le nombre de mines à générer.
-     * @param width     La largeur du champ de mines.
-     * @param height    La hauteur du champ de mines.
-     * @return Un ensemble de coordonnées représentant les positions des mines.
+     * @param seed La graine de la disposition des mines.
      */
-    private Collection<Coordinate> generateMines(int mineCount, int width, int height) {
-        Set<Coordinate> mines = new HashSet<>();
-        while (mines.size() < mineCount) {
-            int x = (int) (Math.random() * width);
-            int y = (int) (Math.random() * height);
-            mines.add(new Coordinate(x, y));
-        }
-        return mines;
+    private void newGame(long seed) {
+        this.seed = seed;
+        board = new Board(level.getWidth(), level.getHeight(), mineLayoutGenerator.generate(level, seed));
+        clock.reset(0);
+        moveProcessor.reset(board, true, () -> openJournal(seed));
+        ordinaryLayoutFallback = false;
+        updateTitle();
     }
 
     /**
-     * Met à jour l'affichage d'un bouton en fonction de l'état du champ de mines associé.
-     * Si le champ a été ouvert, affiche le nombre de mines voisines ou une mine si présente.
-     * Si le champ est marqué, affiche un drapeau.
+     * Ouvre le journal des coups d'une nouvelle partie, en remplaçant celui de la partie précédente.
+     * Appelée sur le thread des coups, une fois le journal précédent fermé.
      *
-     * @param button Le bouton à mettre à jour.
-     * @param field Le champ correspondant à ce bouton.
+     * @param seed La graine de la partie.
+     * @return Le journal.
+     * @throws IOException Si le journal ne peut pas être créé ; la partie se joue alors sans journal.
      */
-    private void updateButton(JButton button, Field field) {
-        if (gameOver) {
-            return; // Empêche l'incrémentation du score et toute action supplémentaire après la fin de la partie
-        }
+    private MoveJournal openJournal(long seed) throws IOException {
+        Files.createDirectories(JOURNAL_PATH.getParent());
+        return MoveJournal.create(JOURNAL_PATH, level, seed, MoveJournal.LAYOUT_FIRST_CLICK);
+    }
 
-        if (field.isOpened()) {
-            if (field.hasMine()) {
-                button.setText("💣");
-            } else {
-                int neighbourMines = field.getNeighbourMineCount();
-                button.setText(neighbourMines > 0 ? String.valueOf(neighbourMines) : "");
-                score++; // Incrémenter le score seulement si la partie n'est pas terminée
-                scoreLabel.setText("Score: " + score);
+    /**
+     * Ouvre le journal d'une partie restaurée. Tant qu'aucune case n'est ouverte, les mines seront replacées
+     * au premier clic à partir de la graine : la partie se rejoue donc depuis le journal, où les drapeaux
+     * déjà posés sont enregistrés en premier. Une partie déjà commencée ne se rejoue pas depuis sa graine :
+     * elle n'est pas journalisée, et le journal de la partie précédente est supprimé pour ne pas passer
+     * pour celui de la partie en cours. Appelée sur le thread des coups.
+     *
+     * @param restored     La grille restaurée.
+     * @param restoredSeed La graine de la partie restaurée.
+     * @return Le journal, ou null pour une partie déjà commencée.
+     * @throws IOException Si le journal ne peut pas être créé ou l'ancien supprimé.
+     */
+    private MoveJournal openRestoredJournal(Board restored, long restoredSeed) throws IOException {
+        if (restored.getOpenedCount() > 0) {
+            Files.deleteIfExists(JOURNAL_PATH);
+            return null;
+        }
+        MoveJournal journal = openJournal(restoredSeed);
+        try {
+            for (int index = 0; index < restored.getCellCount(); index++) {
+                if (restored.hasFlag(index)) {
+                    journal.flag(index);
+                }
             }
-            button.setEnabled(false);
-        } else if (field.hasFlag()) {
-            button.setText("🏴");
-        } else {
-            button.setText("");
+        } catch (IOException e) {
+            journal.close();
+            throw e;
         }
+        return journal;
+    }
 
-        if (debugMode && field.hasMine()) {
-            button.setText("💣");
+    private void updateTitle() {
+        setTitle("Démineur - " + level.getLabel() + " (graine " + seed + ")"
+                + (ordinaryLayoutFallback ? " - aucune grille sans hasard trouvée, grille ordinaire" : ""));
+    }
+
+    /**
+     * Enregistre la partie en cours dans un fichier choisi par le joueur.
+     * L'écriture a lieu sur le thread des coups, après les coups déjà joués.
+     */
+    private void saveGame() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        Path path = chooser.getSelectedFile().toPath();
+        long savedSeed = seed;
+        long elapsedMillis = clock.getElapsedMillis();
+        moveProcessor.execute(current -> {
+            try {
+                BoardFile.save(path, level, savedSeed, elapsedMillis, current);
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                        "Impossible d'enregistrer la partie :\n" + ex.getMessage(), "Erreur", JOptionPane.ERROR_MESSAGE));
+            }
+        });
     }
 
     /**
-     * Classe interne qui gère les événements de souris sur un champ de mines.
-     * Permet de gérer l'action de clic gauche pour ouvrir un champ, et de clic droit pour marquer un champ.
+     * Charge une partie enregistrée. Si son niveau diffère de celui de la fenêtre,
+     * une nouvelle fenêtre aux bonnes dimensions la remplace.
      */
-    private class FieldMouseListener extends MouseAdapter {
-        private int x;
-        private int y;
-
-        /**
-         * Constructeur de FieldMouseListener.
-         *
-         * @param x La position horizontale du champ.
-         * @param y La position verticale du champ.
-         */
-        public FieldMouseListener(int x, int y) {
-            this.x = x;
-            this.y = y;
+    private void loadGame() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        SavedGame saved;
+        try {
+            saved = BoardFile.map(chooser.getSelectedFile().toPath());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Impossible de charger la partie :\n" + ex.getMessage(),
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            return;
         }
 
-        /**
-         * Cette méthode est appelée lors du clic sur un bouton.
-         * Si le jeu n'est pas en pause, elle révèle le champ ou marque le champ avec un drapeau.
-         * Si le joueur touche une mine, la partie se termine.
-         *
-         * @param e L'événement de la souris.
-         */
-        @Override
-        public void mousePressed(MouseEvent e) {
-            if (gamePaused || gameOver) return; // Si la partie est en pause ou terminée, ne rien faire
-
-            if (e.getButton() == MouseEvent.BUTTON1) {
-                RevealFieldsResult result = board.revealFields(new Coordinate(x, y));
-                for (Field field : result.getRevealedFields()) {
-                    updateButton(buttons[field.getCoordinate().getX()][field.getCoordinate().getY()], field);
-                }
+        Level savedLevel = saved.getLevel();
+        if (savedLevel.getWidth() == level.getWidth() && savedLevel.getHeight() == level.getHeight()
+                && savedLevel.getMineCount() == level.getMineCount()) {
+            restoreGame(saved);
+        } else {
+            timer.stop();
+            // Le journal de cette fenêtre doit être fermé avant que la nouvelle ne rouvre le même fichier
+            moveProcessor.close();
+            MinesweeperGUI gui = new MinesweeperGUI(savedLevel);
+            gui.restoreGame(saved);
+            gui.setVisible(true);
+            dispose();
+        }
+    }
 
-                if (result.getState() == RevealFieldsResult.RevealFieldState.FOUND_MINE) {
-                    // Partie terminée, on affiche un message et on dévoile toutes les mines
-                    JOptionPane.showMessageDialog(MinesweeperGUI.this, "Partie terminée ! Vous avez touché une mine.\nDurée: " + timeElapsed + " s\nScore: " + score);
-                    revealAllMines();
-                    gameOver = true; // Marque la fin du jeu
-                    timer.stop();
-                } else if (board.hasWon()) {
-                    // Partie gagnée, on affiche un message et on dévoile toutes les cases
-                    JOptionPane.showMessageDialog(MinesweeperGUI.this, "Félicitations ! Vous avez gagné !\nDurée: " + timeElapsed + " s\nScore: " + score);
-                    revealAllFields(); // Cette méthode dévoile toutes les cases
-                    gameOver = true; // Marque la fin du jeu
-                    timer.stop();
-                }
-            } else if (e.getButton() == MouseEvent.BUTTON3) {
-                // Gestion du clic droit pour poser un drapeau
-                board.flagField(new Coordinate(x, y));
-                updateButton(buttons[x][y], board.getFields().stream()
-                        .filter(f -> f.getCoordinate().equals(new Coordinate(x, y)))
-                        .findFirst()
-                        .orElse(null));
+    /**
+     * Remplace la partie en cours par une partie enregistrée et met à jour tous les boutons.
+     *
+     * @param saved La partie enregistrée, de mêmes dimensions que la fenêtre.
+     */
+    private void restoreGame(SavedGame saved) {
+        timer.stop();
+        board = saved.toBoard();
+        seed = saved.getSeed();
+        Board restored = board;
+        long restoredSeed = seed;
+        moveProcessor.reset(board, board.getOpenedCount() == 0, () -> openRestoredJournal(restored, restoredSeed));
+        timeElapsed = (int) (saved.getElapsedMillis() / 1000);
+        clock.reset(saved.getElapsedMillis());
+        timeLabel.setText("Temps écoulé: " + timeElapsed + " s");
+        score = board.getCellCount() - board.getMineCount() - board.getSafeCellsRemaining();
+        scoreLabel.setText("Score: " + score);
+        gameOver = false;
+        ordinaryLayoutFallback = false;
+        updateTitle();
+
+        mineFieldView.setBoard(board);
+        updateMinesLabel();
+    }
+
+    /**
+     * Replace les mines pour que le premier clic, en (x, y), tombe sur une case sans mine voisine
+     * lorsque la densité le permet. En mode sans hasard, la grille se résout en outre à partir de ce clic
+     * sans jamais deviner ; si aucune grille résoluble n'est trouvée, une grille ordinaire est jouée
+     * et le titre de la fenêtre l'indique.
+     *
+     * Appelée sur le thread des coups par le {@link MoveProcessor}.
+     *
+     * @param previous La grille courante, dont les drapeaux sont conservés.
+     * @param x        La position horizontale du premier clic.
+     * @param y        La position verticale du premier clic.
+     * @return La nouvelle grille.
+     */
+    private Board placeMinesAround(Board previous, int x, int y) {
+        int[] layout = null;
+        long placedSeed = seed;
+        if (mineLayoutGenerator == NO_GUESS_GENERATOR) {
+            layout = NO_GUESS_GENERATOR.findSolvable(level.getWidth(), level.getHeight(), level.getMineCount(),
+                    placedSeed, x, y);
+            if (layout != null) {
+                moveProcessor.updateJournal(journal -> journal.setLayoutMode(MoveJournal.LAYOUT_FIRST_CLICK_NO_GUESS));
+            } else {
+                // La grille ordinaire est signalée au joueur, et le journal garde le mode ordinaire qui la rejoue
+                SwingUtilities.invokeLater(() -> {
+                    if (seed == placedSeed) {
+                        ordinaryLayoutFallback = true;
+                        updateTitle();
+                    }
+                });
             }
         }
+        if (layout == null) {
+            layout = MineLayoutGenerator.floyd().generateSafe(level.getWidth(), level.getHeight(), level.getMineCount(),
+                    placedSeed, x, y);
+        }
+        // La grille affichée est lue par l'EDT : les mines sont placées sur une copie, drapeaux compris
+        ByteBuffer cells = ByteBuffer.allocate(previous.getCellCount());
+        previous.writeCells(cells);
+        Board placed = Board.fromCells(level.getWidth(), level.getHeight(), cells.flip());
+        placed.replaceMines(layout);
+        return placed;
     }
 
     /**
-     * Révèle toutes les mines sur le champ de jeu, utilisé lorsqu'une mine est touchée.
+     * Met à jour le compteur de mines restantes (mines moins drapeaux posés).
      */
-    private void revealAllMines() {
-        for (Field field : board.getMines()) {
-            JButton button = buttons[field.getCoordinate().getX()][field.getCoordinate().getY()];
-            button.setText("💣");
-            button.setEnabled(false);
+    private void updateMinesLabel() {
+        minesLabel.setText("Mines: " + board.getRemainingMineCount());
+    }
+
+    /**
+     * Gère un clic de souris sur une case du champ de mines.
+     * Si le jeu n'est pas en pause, le clic gauche révèle la case et le clic droit la marque d'un drapeau.
+     * Le clic du milieu, ou les deux boutons enfoncés ensemble, jouent un accord sur une case ouverte.
+     * Le coup est transmis au {@link MoveProcessor}, qui le joue hors de l'EDT.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @param e L'événement de la souris.
+     */
+    private void cellPressed(int x, int y, MouseEvent e) {
+        if (gamePaused || gameOver) return; // Si la partie est en pause ou terminée, ne rien faire
+
+        // Accord : clic du milieu, ou clics gauche et droit enfoncés ensemble
+        int bothButtons = MouseEvent.BUTTON1_DOWN_MASK | MouseEvent.BUTTON3_DOWN_MASK;
+        if (e.getButton() == MouseEvent.BUTTON2 || (e.getModifiersEx() & bothButtons) == bothButtons) {
+            moveProcessor.chord(x, y);
+        } else if (e.getButton() == MouseEvent.BUTTON1) {
+            moveProcessor.reveal(x, y);
+        } else if (e.getButton() == MouseEvent.BUTTON3) {
+            // Gestion du clic droit pour poser un drapeau
+            moveProcessor.flag(x, y);
         }
     }
 
     /**
-     * Révèle toutes les cases à la fin du jeu (gagné ou perdu).
+     * Applique sur l'EDT les effets cumulés des coups joués depuis la dernière image.
+     * Si le joueur a touché une mine, la partie se termine.
+     *
+     * @param batch Les effets des coups.
      */
-    private void revealAllFields() {
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                int finalX = x;
-                int finalY = y;
-                Field field = board.getFields().stream()
-                        .filter(f -> f.getCoordinate().getX() == finalX && f.getCoordinate().getY() == finalY)
-                        .findFirst().orElse(null);
-                updateButton(buttons[x][y], field); // Révèle toutes les cellules
-            }
+    private void applyBatch(MoveProcessor.Batch batch) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        clock.start();
+        if (batch.boardReplaced) {
+            board = batch.board;
+            mineFieldView.setBoard(board);
+        } else if (batch.hasDirtyRegion()) {
+            mineFieldView.refreshRegion(batch.minX, batch.minY, batch.maxX, batch.maxY);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.GUI_BATCH_LATENCY.recordSince(start);
+            Metrics.GUI_BATCH_CELLS.record(batch.boardReplaced ? board.getCellCount()
+                    : batch.hasDirtyRegion() ? (long) (batch.maxX - batch.minX + 1) * (batch.maxY - batch.minY + 1) : 0);
+        }
+        score += batch.revealedSafeCells; // Une case sans mine ouverte rapporte un point
+        scoreLabel.setText("Score: " + score);
+        updateMinesLabel();
+
+        if (batch.mineFound) {
+            // Partie terminée, on affiche un message et on dévoile toutes les mines
+            gameOver = true; // Marque la fin du jeu
+            timer.stop();
+            recordResult(false);
+            JOptionPane.showMessageDialog(this, "Partie terminée ! Vous avez touché une mine.\nDurée: " + timeElapsed + " s\nScore: " + score);
+            mineFieldView.revealMines();
+        } else if (batch.won) {
+            // Partie gagnée, on affiche un message et on redessine toutes les cases
+            gameOver = true; // Marque la fin du jeu
+            timer.stop();
+            recordResult(true);
+            JOptionPane.showMessageDialog(this, "Félicitations ! Vous avez gagné !\nDurée: " + timeElapsed + " s\nScore: " + score);
+            mineFieldView.refreshAll();
         }
     }
 
     /**
-     * Réinitialise le jeu, recréant un nouveau tableau de mines et réinitialisant les boutons.
+     * Enregistre le résultat de la partie qui vient de se terminer dans le classement local.
+     * Le 3BV est calculé sur le thread des coups et l'écriture a lieu sur celui du classement :
+     * l'EDT n'attend ni l'un ni l'autre.
+     *
+     * @param won true si la partie est gagnée.
      */
-    private void resetGame() {
-        board = new Board(board.getWidth(), board.getHeight(), generateMines(board.getMineCount(), board.getWidth(), board.getHeight()));
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                buttons[x][y].setText("");
-                buttons[x][y].setEnabled(true);
+    private void recordResult(boolean won) {
+        clock.pause();
+        long elapsedMillis = clock.getElapsedMillis();
+        long finishedSeed = seed;
+        long timestamp = System.currentTimeMillis();
+        moveProcessor.execute(current -> {
+            GameResult result = new GameResult(level, won, elapsedMillis, current.getThreeBV(), finishedSeed, timestamp);
+            SCORES.thenAccept(store -> store.record(result));
+        });
+    }
+
+    /**
+     * Affiche les meilleures victoires enregistrées pour le niveau de la fenêtre.
+     */
+    private void showLeaderboard() {
+        SCORES.whenComplete((store, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Impossible de lire les scores :\n" + error.getMessage(),
+                        "Erreur", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            List<GameResult> best = store.top(level, LEADERBOARD_SIZE);
+            StringBuilder text = new StringBuilder(String.format("%s : %d parties, %d victoires%n%n", level.getLabel(),
+                    store.getGameCount(level), store.getWinCount(level)));
+            for (int rank = 0; rank < best.size(); rank++) {
+                GameResult result = best.get(rank);
+                text.append(String.format("%2d. %.3f s  3BV %d (%.2f/s)  graine %d%n", rank + 1,
+                        result.getElapsedMillis() / 1000.0, result.getThreeBV(), result.getThreeBVPerSecond(),
+                        result.getSeed()));
+            }
+            if (best.isEmpty()) {
+                text.append("Aucune victoire enregistrée.");
             }
+            JOptionPane.showMessageDialog(this, text.toString(), "Scores", JOptionPane.INFORMATION_MESSAGE);
+        }));
+    }
+
+    /**
+     * Affiche la progression d'une longue cascade, ou masque la barre de progression.
+     *
+     * @param openedCells Le nombre de cases déjà ouvertes par la cascade en cours.
+     */
+    private void showProgress(long openedCells) {
+        boolean visible = openedCells > 0;
+        if (visible) {
+            progressBar.setString("Ouverture: " + openedCells + " cases");
+        }
+        if (progressBar.isVisible() != visible) {
+            progressBar.setVisible(visible);
         }
     }
 
+    /**
+     * Réinitialise le jeu, recréant un nouveau tableau de mines et réinitialisant le champ de mines.
+     */
+    private void resetGame() {
+        newGame(ThreadLocalRandom.current().nextLong());
+        mineFieldView.setBoard(board);
+    }
+
 
     private void enableFieldButtons(boolean enable) {
-        for (int x = 0; x < board.getWidth(); x++) {
-            for (int y = 0; y < board.getHeight(); y++) {
-                buttons[x][y].setEnabled(enable);
-            }
-        }
+        mineFieldView.setInputEnabled(enable);
     }
 
     /**
-     * Méthode principale pour lancer le jeu avec un niveau par défaut (débutant).
+     * Méthode principale pour lancer le jeu avec un niveau par défaut (débutant),
+     * ou avec un niveau personnalisé si la largeur, la hauteur et le nombre de mines sont fournis.
      *
-     * @param args Les arguments de ligne de commande (non utilisés ici).
+     * @param args Les arguments de ligne de commande : aucun, ou {@code largeur hauteur mines}.
      */
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            Level level = Level.getBeginner();
+            Level level = args.length == 3
+                    ? new Level(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]))
+                    : Level.getBeginner();
             MinesweeperGUI gui = new MinesweeperGUI(level);
             gui.setVisible(true);
         });
@@ -0,0 +1,458 @@
+package org.example;
+
+import org.example.models.Board;
+import org.example.models.RevealFieldsResult;
+import org.example.models.RevealListener;
+import org.example.storage.MoveJournal;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Exécute les coups du joueur hors du thread de l'interface graphique (EDT).
+ * Les coups sont traités un par un, dans leur ordre d'arrivée, par un unique thread virtuel.
+ * Leurs effets sont cumulés dans un lot que l'EDT récupère au plus une fois par image :
+ * plusieurs coups rapprochés ne provoquent donc qu'un seul redessin.
+ * Pendant une longue cascade, le nombre de cases déjà ouvertes est disponible pour afficher la progression.
+ * Les coups acceptés peuvent être enregistrés dans un {@link MoveJournal}, vidé dès que la file de coups est vide.
+ * Le minuteur de publication ne tourne que lorsque des coups sont en cours ou qu'un lot attend l'EDT.
+ * {@link #close()} libère le thread de traitement, le minuteur et le journal lorsque la fenêtre est fermée.
+ */
+class MoveProcessor {
+
+    // Intervalle de publication des lots vers l'EDT, soit environ 60 images par seconde
+    static final int FRAME_MILLIS = 16;
+
+    // Nombre de cases ouvertes entre deux mises à jour du compteur de progression
+    private static final int PROGRESS_STEP = 1024;
+
+    // Attente maximale de la fin du coup en cours lors de la fermeture
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Fournit la grille sur laquelle jouer au premier clic gauche d'une partie.
+     */
+    @FunctionalInterface
+    interface FirstMoveHandler {
+
+        /**
+         * Appelée sur le thread de traitement.
+         *
+         * @param previous La grille courante, éventuellement déjà marquée de drapeaux.
+         * @param x        La position horizontale du premier clic.
+         * @param y        La position verticale du premier clic.
+         * @return La grille sur laquelle jouer ce premier clic.
+         */
+        Board placeMines(Board previous, int x, int y);
+    }
+
+    /**
+     * Effets cumulés d'un ou plusieurs coups, à appliquer sur l'EDT.
+     */
+    static final class Batch {
+        final int generation;
+        final Board board;
+        boolean boardReplaced;
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = -1;
+        int maxY = -1;
+        int revealedSafeCells;
+        boolean mineFound;
+        boolean won;
+
+        Batch(int generation, Board board) {
+            this.generation = generation;
+            this.board = board;
+        }
+
+        /**
+         * @return true si au moins une case a changé.
+         */
+        boolean hasDirtyRegion() {
+            return maxX >= 0;
+        }
+
+        void include(int x, int y) {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+
+        void merge(Batch other) {
+            boardReplaced |= other.boardReplaced;
+            if (other.hasDirtyRegion()) {
+                include(other.minX, other.minY);
+                include(other.maxX, other.maxY);
+            }
+            revealedSafeCells += other.revealedSafeCells;
+            mineFound |= other.mineFound;
+            won |= other.won;
+        }
+    }
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("demineur-moves").factory());
+    private final Timer frameTimer;
+    private final FirstMoveHandler firstMoveHandler;
+
+    // État propre au thread de traitement
+    private Board board;
+    private boolean firstMove;
+    private boolean finished;
+    private int workerGeneration;
+    private MoveJournal journal;
+
+    // Lot en attente de publication, protégé par le verrou de l'objet
+    private Batch pending;
+
+    // Génération courante, incrémentée à chaque nouvelle partie pour ignorer les lots périmés
+    private volatile int generation;
+    private volatile int movesInFlight;
+    private volatile long cascadeProgress;
+    private volatile boolean closed;
+
+    /**
+     * Crée le processeur ; aucune grille n'est jouable avant le premier appel à {@link #reset(Board, boolean)}.
+     *
+     * @param firstMoveHandler Fournit la grille à jouer au premier clic gauche de chaque partie.
+     * @param batchConsumer    Reçoit sur l'EDT, au plus une fois par image, les effets cumulés des coups.
+     * @param progressConsumer Reçoit sur l'EDT, à chaque image, le nombre de cases déjà ouvertes
+     *                         par la cascade en cours (0 en l'absence de longue cascade).
+     */
+    MoveProcessor(FirstMoveHandler firstMoveHandler, Consumer<Batch> batchConsumer, LongConsumer progressConsumer) {
+        this.firstMoveHandler = firstMoveHandler;
+        this.frameTimer = new Timer(FRAME_MILLIS, e -> {
+            if (closed) {
+                return;
+            }
+            Batch batch = takePending();
+            if (batch != null && batch.generation == generation) {
+                batchConsumer.accept(batch);
+            }
+            progressConsumer.accept(cascadeProgress);
+            stopTimerIfIdle();
+        });
+    }
+
+    /**
+     * Arrête le minuteur lorsqu'aucun coup n'est en cours et qu'aucun lot n'attend ; {@link #submit(Runnable)}
+     * le relance. Le test et l'arrêt sont faits sous le verrou qui protège aussi le compteur de coups
+     * et le lot en attente, pour qu'aucun lot publié entre-temps ne reste sans image.
+     */
+    private synchronized void stopTimerIfIdle() {
+        if (movesInFlight == 0 && pending == null) {
+            frameTimer.stop();
+        }
+    }
+
+    /**
+     * Remplace la grille pour une nouvelle partie. Les coups déjà soumis sont encore traités,
+     * mais leurs effets sont ignorés.
+     *
+     * @param board     La nouvelle grille.
+     * @param firstMove true si le premier clic doit encore replacer les mines.
+     */
+    void reset(Board board, boolean firstMove) {
+        reset(board, firstMove, null);
+    }
+
+    /**
+     * Remplace la grille pour une nouvelle partie dont les coups sont enregistrés dans un journal.
+     * Le journal de la partie précédente est fermé avant l'ouverture du nouveau, sur le thread de traitement :
+     * les deux peuvent donc utiliser le même fichier.
+     *
+     * @param board         La nouvelle grille.
+     * @param firstMove     true si le premier clic doit encore replacer les mines.
+     * @param journalOpener Ouvre le journal des coups de la partie ; null, ou un journal null, pour ne pas
+     *                      les enregistrer. En cas d'erreur, la partie se joue sans journal.
+     */
+    void reset(Board board, boolean firstMove, JournalOpener journalOpener) {
+        int newGeneration = ++generation;
+        submit(() -> {
+            closeJournal();
+            this.board = board;
+            this.firstMove = firstMove;
+            this.finished = false;
+            this.workerGeneration = newGeneration;
+            if (journalOpener != null) {
+                try {
+                    this.journal = journalOpener.open();
+                } catch (IOException e) {
+                    System.err.println("Move journal not opened: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Ouvre le journal d'une partie, sur le thread de traitement.
+     */
+    @FunctionalInterface
+    interface JournalOpener {
+        MoveJournal open() throws IOException;
+    }
+
+    /**
+     * Soumet l'ouverture de la case (x, y).
+     */
+    void reveal(int x, int y) {
+        submit(() -> {
+            if (finished) {
+                return;
+            }
+            // Un clic hors de la grille ne place pas les mines et n'ouvre rien
+            boolean boardReplaced = firstMove && board.contains(x, y);
+            if (boardReplaced) {
+                board = firstMoveHandler.placeMines(board, x, y);
+                firstMove = false;
+            }
+            if (board.contains(x, y)) {
+                record(false, board.indexOf(x, y));
+            }
+            open(x, y, false, boardReplaced);
+        });
+    }
+
+    /**
+     * Soumet un accord sur la case (x, y) : ses voisines sans drapeau sont ouvertes si elle est entourée
+     * d'autant de drapeaux que de mines. Sans effet avant le premier clic.
+     */
+    void chord(int x, int y) {
+        submit(() -> {
+            if (finished || firstMove) {
+                return;
+            }
+            open(x, y, true, false);
+        });
+    }
+
+    /**
+     * Ouvre une case ou joue un accord, puis publie le lot correspondant. Appelée sur le thread de traitement.
+     */
+    private void open(int x, int y, boolean chord, boolean boardReplaced) {
+        Batch batch = new Batch(workerGeneration, board);
+        batch.boardReplaced = boardReplaced;
+
+        Batch target = batch;
+        Board current = board;
+        cascadeProgress = 0;
+        RevealListener listener = new RevealListener() {
+            private int opened;
+
+            @Override
+            public void fieldRevealed(int index) {
+                int cellX = current.xOf(index);
+                int cellY = current.yOf(index);
+                target.include(cellX, cellY);
+                // Un accord est enregistré comme l'ouverture de chacune des voisines qu'il a ouvertes :
+                // leur relecture, dans le même ordre, reproduit exactement la même cascade
+                if (chord && Math.abs(cellX - x) <= 1 && Math.abs(cellY - y) <= 1) {
+                    record(false, index);
+                }
+                if (++opened % PROGRESS_STEP == 0) {
+                    cascadeProgress = opened;
+                }
+            }
+        };
+        int openedBefore = current.getOpenedCount();
+        RevealFieldsResult.RevealFieldState state = chord
+                ? current.chord(x, y, listener)
+                : current.revealFields(x, y, listener);
+        cascadeProgress = 0;
+        if (state == RevealFieldsResult.RevealFieldState.FOUND_MINE) {
+            // Un accord peut ouvrir des cases sans mine avant de toucher la mine
+            batch.revealedSafeCells = current.getOpenedCount() - openedBefore - 1;
+            batch.mineFound = true;
+            finished = true;
+        } else {
+            batch.revealedSafeCells = current.getOpenedCount() - openedBefore;
+            if (current.hasWon()) {
+                batch.won = true;
+                finished = true;
+            }
+        }
+        publish(batch);
+    }
+
+    /**
+     * Soumet la pose ou le retrait d'un drapeau sur la case (x, y).
+     */
+    void flag(int x, int y) {
+        submit(() -> {
+            if (finished) {
+                return;
+            }
+            if (!board.contains(x, y)) {
+                return;
+            }
+            board.flagField(x, y);
+            record(true, board.indexOf(x, y));
+            Batch batch = new Batch(workerGeneration, board);
+            batch.include(x, y);
+            publish(batch);
+        });
+    }
+
+    /**
+     * Exécute une tâche sur le thread de traitement, après les coups déjà soumis.
+     * Permet de lire la grille dans un état cohérent, par exemple pour l'enregistrer.
+     *
+     * @param task La tâche, qui reçoit la grille courante.
+     */
+    void execute(Consumer<Board> task) {
+        submit(() -> task.accept(board));
+    }
+
+    /**
+     * @return true si des coups sont en cours ou en attente de traitement.
+     */
+    boolean isBusy() {
+        return movesInFlight > 0;
+    }
+
+    /**
+     * Arrête le processeur : les coups encore en file sont abandonnés, le journal est fermé et le thread
+     * de traitement s'arrête. Attend la fin du coup en cours, pour que le fichier du journal puisse être
+     * rouvert aussitôt par une autre fenêtre. Doit être appelée avant de fermer la fenêtre.
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            frameTimer.stop();
+        }
+        worker.execute(this::closeJournal);
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Move processor still busy after close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Runnable move) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            movesInFlight++;
+            frameTimer.start();
+        }
+        worker.execute(() -> {
+            boolean drained;
+            try {
+                if (!closed) {
+                    move.run();
+                }
+            } finally {
+                synchronized (this) {
+                    drained = --movesInFlight == 0;
+                }
+            }
+            // Les coups d'une rafale sont écrits ensemble, une fois la file vidée
+            if (drained && journal != null) {
+                try {
+                    journal.flush();
+                } catch (IOException e) {
+                    dropJournal(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Enregistre un coup accepté dans le journal de la partie, s'il y en a un. Appelée sur le thread de traitement.
+     */
+    private void record(boolean flag, int index) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (flag) {
+                journal.flag(index);
+            } else {
+                journal.reveal(index);
+            }
+        } catch (IOException e) {
+            dropJournal(e);
+        }
+    }
+
+    /**
+     * Exécute immédiatement une tâche sur le journal de la partie en cours ; sans journal, la tâche n'est pas appelée.
+     * Doit être appelée sur le thread de traitement, par exemple depuis le {@link FirstMoveHandler}.
+     *
+     * @param task La tâche, qui reçoit le journal.
+     */
+    void updateJournal(JournalTask task) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            task.accept(journal);
+        } catch (IOException e) {
+            dropJournal(e);
+        }
+    }
+
+    /**
+     * Opération sur le journal pouvant échouer en écriture.
+     */
+    @FunctionalInterface
+    interface JournalTask {
+        void accept(MoveJournal journal) throws IOException;
+    }
+
+    // Une erreur d'écriture ne doit pas interrompre la partie : le journal est simplement abandonné
+    private void dropJournal(IOException cause) {
+        System.err.println("Move journal disabled: " + cause.getMessage());
+        MoveJournal failed = journal;
+        journal = null;
+        try {
+            failed.close();
+        } catch (IOException ignored) {
+            // Le journal est déjà inutilisable
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Move journal not closed: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    private synchronized void publish(Batch batch) {
+        if (pending != null && pending.generation == batch.generation) {
+            if (pending.board == batch.board) {
+                pending.merge(batch);
+                return;
+            }
+            // Le lot change de grille (premier clic) : il reprend les effets déjà cumulés
+            batch.merge(pending);
+        }
+        pending = batch;
+    }
+
+    private synchronized Batch takePending() {
+        Batch batch = pending;
+        pending = null;
+        return batch;
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme à classes log-linéaires, à la manière de HdrHistogram.
+ * Les valeurs de 0 à 31 ont chacune leur classe ; au-delà, chaque puissance de deux est découpée
+ * en 16 classes de même largeur, soit une erreur relative d'au plus 6,25 % sur les quantiles.
+ * L'enregistrement ne coûte qu'un calcul de bits et un incrément atomique, sans verrou ni allocation,
+ * et peut avoir lieu depuis plusieurs threads à la fois.
+ */
+public final class Histogram {
+
+    // 2^SUB_BUCKET_BITS classes linéaires pour les petites valeurs, la moitié par puissance de deux ensuite
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF;
+
+    private final String name;
+    private final String unit;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param name Le nom de la mesure, par exemple {@code board.reveal.latency}.
+     * @param unit L'unité des valeurs, par exemple {@code ns}.
+     */
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Enregistre une valeur ; une valeur négative compte comme 0.
+     *
+     * @param value La valeur à enregistrer.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis un instant donné par {@link System#nanoTime()}.
+     *
+     * @param startNanos L'instant de départ.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int bucketOf(long value) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(value | (SUB_BUCKET_COUNT - 1));
+        int shift = magnitude - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    // Plus grande valeur de la classe
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKET_HALF - 1;
+        long sub = bucket - (long) shift * SUB_BUCKET_HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Calcule un quantile, arrondi à la plus grande valeur de sa classe.
+     *
+     * @param percentile Le quantile voulu, entre 0 et 100.
+     * @return La valeur en dessous de laquelle se trouvent {@code percentile} % des valeurs, ou 0 sans valeur.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Remet l'histogramme à zéro. Les valeurs enregistrées pendant l'appel peuvent être perdues.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Mesures des chemins critiques du jeu : construction des grilles, ouvertures et cascades,
+ * tests de victoire, génération des mines et lots de mise à jour de l'interface.
+ * <p>
+ * Les mesures ne sont prises que si la propriété système {@code demineur.metrics} vaut {@code true}
+ * au démarrage. {@link #ENABLED} est une constante : lorsqu'elle est fausse, le compilateur à la volée
+ * élimine les blocs {@code if (Metrics.ENABLED)} des points de mesure, qui ne coûtent alors rien.
+ * Une fois activées, les mesures sont exposées par JMX sous le nom {@value #OBJECT_NAME} et peuvent
+ * être écrites périodiquement, au format JSON, en donnant une période en secondes à la propriété
+ * {@code demineur.metrics.dumpSeconds}.
+ */
+public final class Metrics {
+
+    /**
+     * true si les mesures sont activées pour toute la durée de la JVM.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("demineur.metrics");
+
+    /**
+     * Nom JMX de la vue des mesures.
+     */
+    public static final String OBJECT_NAME = "org.example:type=Metrics";
+
+    public static final Histogram BOARD_CREATION = new Histogram("board.creation.latency", "ns");
+    public static final Histogram REVEAL_LATENCY = new Histogram("board.reveal.latency", "ns");
+    public static final Histogram REVEAL_CASCADE = new Histogram("board.reveal.cascade", "cells");
+    public static final Counter HAS_WON_CALLS = new Counter("board.hasWon.calls");
+    public static final Histogram MINE_LAYOUT = new Histogram("mines.layout.latency", "ns");
+    public static final Histogram NO_GUESS_LAYOUT = new Histogram("mines.noGuess.latency", "ns");
+    public static final Histogram GUI_BATCH_LATENCY = new Histogram("gui.batch.latency", "ns");
+    public static final Histogram GUI_BATCH_CELLS = new Histogram("gui.batch.cells", "cells");
+
+    private static final List<Counter> COUNTERS = List.of(HAS_WON_CALLS);
+    private static final List<Histogram> HISTOGRAMS = List.of(BOARD_CREATION, REVEAL_LATENCY, REVEAL_CASCADE,
+            MINE_LAYOUT, NO_GUESS_LAYOUT, GUI_BATCH_LATENCY, GUI_BATCH_CELLS);
+
+    static {
+        if (ENABLED) {
+            register();
+            long dumpSeconds = Long.getLong("demineur.metrics.dumpSeconds", 0);
+            if (dumpSeconds > 0) {
+                startPeriodicDump(dumpSeconds, TimeUnit.SECONDS, System.err::println);
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Déjà enregistrée, par exemple par un autre chargeur de classes : les mesures restent lisibles ici
+            System.err.println("Metrics MXBean not registered: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit périodiquement toutes les mesures au format JSON, sur un thread démon.
+     *
+     * @param period La période entre deux écritures.
+     * @param unit   L'unité de la période.
+     * @param sink   Reçoit chaque écriture.
+     * @return L'ordonnanceur, à arrêter pour interrompre les écritures.
+     */
+    public static ScheduledExecutorService startPeriodicDump(long period, TimeUnit unit, Consumer<String> sink) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> sink.accept(toJson()), period, period, unit);
+        return scheduler;
+    }
+
+    /**
+     * @return Toutes les mesures au format JSON : un objet par compteur et par histogramme.
+     */
+    public static String toJson() {
+        StringBuilder json = new StringBuilder(256 * HISTOGRAMS.size());
+        json.append("{\"timestamp\":").append(System.currentTimeMillis());
+        for (Counter counter : COUNTERS) {
+            json.append(",\"").append(counter.getName()).append("\":").append(counter.get());
+        }
+        for (Histogram histogram : HISTOGRAMS) {
+            json.append(",\"").append(histogram.getName()).append("\":{\"unit\":\"").append(histogram.getUnit())
+                    .append("\",\"count\":").append(histogram.getCount())
+                    .append(",\"mean\":").append(String.format(Locale.ROOT, "%.1f", histogram.getMean()))
+                    .append(",\"p50\":").append(histogram.getValueAtPercentile(50))
+                    .append(",\"p90\":").append(histogram.getValueAtPercentile(90))
+                    .append(",\"p99\":").append(histogram.getValueAtPercentile(99))
+                    .append(",\"p999\":").append(histogram.getValueAtPercentile(99.9))
+                    .append(",\"max\":").append(histogram.getMax())
+                    .append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * @return Toutes les mesures sous forme de texte, une ligne par mesure.
+     */
+    public static String toText() {
+        StringBuilder builder = new StringBuilder();
+        for (Counter counter : COUNTERS) {
+            builder.append(String.format("%-24s %d%n", counter.getName(), counter.get()));
+        }
+        for (Histogram histogram : HISTOGRAMS) {
+            builder.append(String.format(Locale.ROOT, "%-24s n=%d moyenne=%.1f p50=%d p99=%d p99.9=%d max=%d %s%n",
+                    histogram.getName(), histogram.getCount(), histogram.getMean(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMax(), histogram.getUnit()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Remet toutes les mesures à zéro.
+     */
+    public static void reset() {
+        COUNTERS.forEach(Counter::reset);
+        HISTOGRAMS.forEach(Histogram::reset);
+    }
+
+    private static final class MXBean implements MetricsMXBean {
+
+        @Override
+        public Map<String, Long> getCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            for (Counter counter : COUNTERS) {
+                counts.put(counter.getName(), counter.get());
+            }
+            for (Histogram histogram : HISTOGRAMS) {
+                counts.put(histogram.getName(), histogram.getCount());
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getPercentiles() {
+            Map<String, Long> percentiles = new TreeMap<>();
+            for (Histogram histogram : HISTOGRAMS) {
+                percentiles.put(histogram.getName() + ".p50", histogram.getValueAtPercentile(50));
+                percentiles.put(histogram.getName() + ".p99", histogram.getValueAtPercentile(99));
+                percentiles.put(histogram.getName() + ".p999", histogram.getValueAtPercentile(99.9));
+                percentiles.put(histogram.getName() + ".max", histogram.getMax());
+            }
+            return percentiles;
+        }
+
+        @Override
+        public String dumpJson() {
+            return toJson();
+        }
+
+        @Override
+        public String dumpText() {
+            return toText();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.metrics;
+
+import java.util.Map;
+
+/**
+ * Vue JMX des mesures, enregistrée sous le nom {@value Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return La valeur de chaque compteur, et le nombre de valeurs de chaque histogramme.
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * @return Les quantiles 50, 99 et 99,9 et le maximum de chaque histogramme, sous la forme
+     * {@code nom.p50}, {@code nom.p99}, {@code nom.p999} et {@code nom.max}.
+     */
+    Map<String, Long> getPercentiles();
+
+    /**
+     * @return Toutes les mesures au format JSON.
+     */
+    String dumpJson();
+
+    /**
+     * @return Toutes les mesures sous forme de texte lisible.
+     */
+    String dumpText();
+
+    /**
+     * Remet toutes les mesures à zéro.
+     */
+    void reset();
+}
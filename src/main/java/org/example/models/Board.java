@@ -1,121 +1,733 @@
 package org.example.models;
 
+import org.example.metrics.Metrics;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
 
+/**
+ * Représente la grille du démineur.
+ * L'état de chaque case est compacté dans un octet d'un tableau indexé par {@code y * width + x} :
+ * les 4 bits de poids faible contiennent le nombre de mines voisines, puis viennent
+ * un bit pour la mine, un bit pour l'ouverture et un bit pour le drapeau ; le bit de poids fort
+ * complète le nombre de mines voisines des {@link Topology formes} de plus de 15 voisines.
+ * Les objets {@link Field} ne sont que des vues légères sur ce tableau.
+ * <p>
+ * Sur la grille classique, le voisinage d'une case est calculé à partir de ses coordonnées, sans table.
+ * Les autres formes parcourent la table de voisinage précalculée de leur {@link Topology}.
+ */
 public class Board {
 
+    /**
+     * Algorithme utilisé pour propager l'ouverture des cases sans mine voisine.
+     */
+    public enum RevealAlgorithm {
+        RECURSIVE,  // Parcours récursif historique, un appel par case ouverte.
+        QUEUE       // Parcours en largeur itératif sur une file d'indices, sans allocation par case.
+    }
+
+    // Masque du nombre de mines voisines (0 à 8 sur la grille classique)
+    static final int COUNT_MASK = 0x0F;
+
+    // Bit de poids fort du nombre de mines voisines, utilisé au-delà de 15 voisines
+    static final int COUNT_HIGH = 0x80;
+
+    // Ensemble des bits du nombre de mines voisines
+    static final int COUNT_BITS = COUNT_MASK | COUNT_HIGH;
+
+    // Bit indiquant la présence d'une mine
+    static final int MINE = 0x10;
+
+    // Bit indiquant que la case est ouverte
+    static final int OPENED = 0x20;
+
+    // Bit indiquant qu'un drapeau est posé
+    static final int FLAG = 0x40;
+
     private final int width;
     private final int height;
-    private final Map<Coordinate, Field> fields;
-    private final Set<Field> mines;
+    private final byte[] cells;
+    private final Topology topology;
+
+    // Table de voisinage de la topologie, ou null sur la grille classique
+    private final int[] neighbourOffsets;
+    private final int[] neighbourTable;
+    private int mineCount;
+
+    // Compteurs tenus à jour à chaque modification d'une case
+    private int openedCount;
+    private int openedMineCount;
+    private int flagCount;
+    private int correctFlagCount;
+
+    private RevealAlgorithm revealAlgorithm = RevealAlgorithm.QUEUE;
+
+    // File d'indices réutilisée d'une ouverture à l'autre par l'algorithme QUEUE
+    private int[] revealQueue = new int[64];
 
     public Board(int width, int height, Collection<Coordinate> mines) {
+        this(width, height);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+
+        for (Coordinate mineCoord : mines) {
+            if (contains(mineCoord.getX(), mineCoord.getY())) {
+                placeMine(indexOf(mineCoord.getX(), mineCoord.getY()));
+            }
+        }
+
+        calculateNeighbourMineCounts();
+        if (Metrics.ENABLED) {
+            Metrics.BOARD_CREATION.recordSince(start);
+        }
+    }
+
+    /**
+     * Construit une grille à partir d'indices de cases minées, tels que produits par un {@link MineLayoutGenerator}.
+     *
+     * @param width       La largeur de la grille.
+     * @param height      La hauteur de la grille.
+     * @param mineIndices Les indices ({@code y * width + x}) des cases minées.
+     */
+    public Board(int width, int height, int[] mineIndices) {
+        this(width, height);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+
+        for (int index : mineIndices) {
+            if (index >= 0 && index < cells.length) {
+                placeMine(index);
+            }
+        }
+
+        calculateNeighbourMineCounts();
+        if (Metrics.ENABLED) {
+            Metrics.BOARD_CREATION.recordSince(start);
+        }
+    }
+
+    /**
+     * Construit une grille d'une forme quelconque à partir d'indices de cases minées.
+     * Les couches d'une grille en trois dimensions sont empilées verticalement : la grille a pour hauteur
+     * {@code topology.getHeight() * topology.getDepth()}.
+     *
+     * @param topology    La forme de la grille.
+     * @param mineIndices Les indices des cases minées.
+     */
+    public Board(Topology topology, int[] mineIndices) {
+        this(topology);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+
+        for (int index : mineIndices) {
+            if (index >= 0 && index < cells.length) {
+                placeMine(index);
+            }
+        }
+
+        calculateNeighbourMineCounts();
+        if (Metrics.ENABLED) {
+            Metrics.BOARD_CREATION.recordSince(start);
+        }
+    }
+
+    private Board(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board dimensions must be positive");
+        }
         this.width = width;
         this.height = height;
-        this.fields = new HashMap<>();
-        this.mines = new HashSet<>();
+        this.cells = new byte[Math.multiplyExact(width, height)];
+        this.topology = Topology.square(width, height);
+        this.neighbourOffsets = null;
+        this.neighbourTable = null;
+    }
+
+    private Board(Topology topology) {
+        this.width = topology.getWidth();
+        this.height = topology.getHeight() * topology.getDepth();
+        this.cells = new byte[topology.getCellCount()];
+        this.topology = topology;
+        boolean square = topology.getKind() == Topology.Kind.SQUARE;
+        this.neighbourOffsets = square ? null : topology.offsets();
+        this.neighbourTable = square ? null : topology.neighbours();
+    }
+
+    /**
+     * Reconstruit une grille à partir de son état compacté, tel qu'écrit par {@link #writeCells(ByteBuffer)}.
+     * Les octets sont copiés en bloc depuis la position courante du tampon, puis les compteurs sont recalculés.
+     *
+     * @param width  La largeur de la grille.
+     * @param height La hauteur de la grille.
+     * @param source Le tampon contenant {@code width * height} octets d'état.
+     * @return La grille reconstruite.
+     */
+    public static Board fromCells(int width, int height, ByteBuffer source) {
+        Board board = new Board(width, height);
+        source.get(board.cells);
+        board.recountState();
+        return board;
+    }
+
+    /**
+     * Copie l'état compacté des cases dans un tampon, dans l'ordre des indices {@code y * width + x}.
+     * Chaque octet contient le nombre de mines voisines (bits 0 à 3, puis bit 7 au-delà de 15),
+     * la mine (bit 4), l'ouverture (bit 5) et le drapeau (bit 6). La forme de la grille n'est pas copiée.
+     *
+     * @param target Le tampon de destination, qui doit disposer de {@code width * height} octets.
+     */
+    public void writeCells(ByteBuffer target) {
+        target.put(cells);
+    }
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                Coordinate coord = new Coordinate(x, y);
-                fields.put(coord, new Field(coord));
+    /**
+     * Réinitialise la grille avec une nouvelle disposition de mines, sans réallouer son état.
+     * Toutes les cases sont refermées et les drapeaux retirés, ce qui permet d'enchaîner
+     * des parties de mêmes dimensions sur une seule grille.
+     *
+     * @param mineIndices Les indices ({@code y * width + x}) des cases minées.
+     */
+    public void reset(int[] mineIndices) {
+        Arrays.fill(cells, (byte) 0);
+        mineCount = 0;
+        openedCount = 0;
+        openedMineCount = 0;
+        flagCount = 0;
+        correctFlagCount = 0;
+        for (int index : mineIndices) {
+            if (index >= 0 && index < cells.length) {
+                placeMine(index);
             }
         }
+        calculateNeighbourMineCounts();
+    }
 
-        for (Coordinate mineCoord : mines) {
-            Field field = fields.get(mineCoord);
-            if (field != null) {
-                field.setHasMine(true);
-                this.mines.add(field);
+    /**
+     * Remplace la disposition des mines en conservant les drapeaux déjà posés, comme au premier clic
+     * d'une partie dont les mines sont placées autour de la case jouée. Les autres cases sont refermées.
+     *
+     * @param mineIndices Les indices ({@code y * width + x}) des cases minées.
+     */
+    public void replaceMines(int[] mineIndices) {
+        for (int index = 0; index < cells.length; index++) {
+            cells[index] &= FLAG;
+        }
+        for (int index : mineIndices) {
+            if (index >= 0 && index < cells.length) {
+                cells[index] |= MINE;
             }
         }
-
         calculateNeighbourMineCounts();
+        recountState();
     }
 
-    private void calculateNeighbourMineCounts() {
-        for (Field field : fields.values()) {
-            if (!field.hasMine()) {
-                int count = 0;
-                for (int dx = -1; dx <= 1; dx++) {
-                    for (int dy = -1; dy <= 1; dy++) {
-                        if (dx == 0 && dy == 0) continue;
-                        Coordinate neighbourCoord = new Coordinate(field.getCoordinate(), dx, dy);
-                        Field neighbour = fields.get(neighbourCoord);
-                        if (neighbour != null && neighbour.hasMine()) {
-                            count++;
-                        }
-                    }
+    private void recountState() {
+        mineCount = 0;
+        openedCount = 0;
+        openedMineCount = 0;
+        flagCount = 0;
+        correctFlagCount = 0;
+        for (int index = 0; index < cells.length; index++) {
+            int cell = cells[index] & (COUNT_BITS | MINE | OPENED | FLAG);
+            cells[index] = (byte) cell;
+            boolean mine = (cell & MINE) != 0;
+            if (mine) {
+                mineCount++;
+            }
+            if ((cell & OPENED) != 0) {
+                openedCount++;
+                if (mine) {
+                    openedMineCount++;
+                }
+            }
+            if ((cell & FLAG) != 0) {
+                flagCount++;
+                if (mine) {
+                    correctFlagCount++;
                 }
-                field.setNeighbourMineCount(count);
             }
         }
     }
 
+    private void placeMine(int index) {
+        if ((cells[index] & MINE) == 0) {
+            cells[index] |= MINE;
+            mineCount++;
+        }
+    }
+
+    private void calculateNeighbourMineCounts() {
+        if (neighbourTable == null) {
+            NeighbourCounter.countAll(cells, width, height);
+        } else {
+            NeighbourCounter.countAll(cells, neighbourOffsets, neighbourTable);
+        }
+    }
+
     public boolean hasWon() {
-        for (Field field : fields.values()) {
-            if (!field.hasMine() && !field.isOpened()) {
-                return false;
-            }
+        if (Metrics.ENABLED) {
+            Metrics.HAS_WON_CALLS.increment();
         }
-        return true;
+        return getSafeCellsRemaining() == 0;
     }
 
     public void flagField(Coordinate coord) {
-        Field field = fields.get(coord);
-        if (field != null && !field.isOpened()) {
-            field.setHasFlag(!field.hasFlag());
+        flagField(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Pose ou retire un drapeau sur la case (x, y) si elle n'est pas ouverte.
+     * Une case hors de la grille est ignorée.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     */
+    public void flagField(int x, int y) {
+        if (!contains(x, y)) {
+            return;
+        }
+        int index = indexOf(x, y);
+        if (!isOpened(index)) {
+            setFlag(index, !hasFlag(index));
         }
     }
 
     public Collection<Field> getMines() {
-        return mines;
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Field> iterator() {
+                return new CellIterator(MINE);
+            }
+
+            @Override
+            public int size() {
+                return mineCount;
+            }
+        };
     }
 
     public Collection<Field> getFields() {
-        return fields.values();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Field> iterator() {
+                return new CellIterator(0);
+            }
+
+            @Override
+            public int size() {
+                return cells.length;
+            }
+        };
+    }
+
+    /**
+     * Retourne une vue sur la case (x, y).
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @return La vue sur la case, ou null si la position est hors de la grille.
+     */
+    public Field getField(int x, int y) {
+        return contains(x, y) ? new Field(this, indexOf(x, y)) : null;
+    }
+
+    /**
+     * Retourne une vue sur la case d'indice donné.
+     *
+     * @param index L'indice de la case, entre 0 et {@link #getCellCount()} exclu.
+     * @return La vue sur la case.
+     */
+    public Field getField(int index) {
+        Objects.checkIndex(index, cells.length);
+        return new Field(this, index);
     }
 
     public RevealFieldsResult revealFields(Coordinate coord) {
-        Field field = fields.get(coord);
-        if (field == null || field.hasFlag() || field.isOpened()) {
+        return revealFields(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Ouvre la case (x, y) et, si elle n'a aucune mine voisine, propage l'ouverture aux cases voisines.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @return Les cases ouvertes et l'état de l'opération.
+     */
+    public RevealFieldsResult revealFields(int x, int y) {
+        if (!Metrics.ENABLED) {
+            return reveal(x, y);
+        }
+        long start = System.nanoTime();
+        int openedBefore = openedCount;
+        RevealFieldsResult result = reveal(x, y);
+        recordReveal(start, openedBefore);
+        return result;
+    }
+
+    private RevealFieldsResult reveal(int x, int y) {
+        if (!contains(x, y)) {
+            return new RevealFieldsResult();
+        }
+        int index = indexOf(x, y);
+        if (hasFlag(index) || isOpened(index)) {
             return new RevealFieldsResult();
         }
 
-        Set<Field> revealedFields = new HashSet<>();
-        if (field.hasMine()) {
-            field.setOpened(true);
-            revealedFields.add(field);
-            return new RevealFieldsResult(revealedFields, RevealFieldsResult.RevealFieldState.FOUND_MINE);
+        if (hasMine(index)) {
+            setOpened(index, true);
+            return new RevealFieldsResult(new RevealedFields(this, new int[]{index}, 1),
+                    RevealFieldsResult.RevealFieldState.FOUND_MINE, index);
+        }
+
+        if (revealAlgorithm == RevealAlgorithm.RECURSIVE) {
+            Set<Field> revealedFields = new HashSet<>();
+            revealField(index, revealedFields);
+            return new RevealFieldsResult(revealedFields, RevealFieldsResult.RevealFieldState.FIELDS_REVEALED);
+        }
+
+        int count = floodReveal(index, null);
+        openedCount += count;
+        return new RevealFieldsResult(new RevealedFields(this, Arrays.copyOf(revealQueue, count), count),
+                RevealFieldsResult.RevealFieldState.FIELDS_REVEALED);
+    }
+
+    /**
+     * Ouvre la case (x, y) comme {@link #revealFields(int, int)}, mais signale chaque case ouverte
+     * à l'observateur pendant la cascade au lieu de construire un résultat.
+     * Cette variante utilise toujours l'algorithme {@link RevealAlgorithm#QUEUE}.
+     *
+     * @param x        La position horizontale de la case.
+     * @param y        La position verticale de la case.
+     * @param listener L'observateur appelé pour chaque case ouverte.
+     * @return L'état de l'opération, connu dès la première case.
+     */
+    public RevealFieldsResult.RevealFieldState revealFields(int x, int y, RevealListener listener) {
+        if (!Metrics.ENABLED) {
+            return reveal(x, y, listener);
+        }
+        long start = System.nanoTime();
+        int openedBefore = openedCount;
+        RevealFieldsResult.RevealFieldState state = reveal(x, y, listener);
+        recordReveal(start, openedBefore);
+        return state;
+    }
+
+    private RevealFieldsResult.RevealFieldState reveal(int x, int y, RevealListener listener) {
+        if (!contains(x, y)) {
+            return RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED;
+        }
+        int index = indexOf(x, y);
+        if (hasFlag(index) || isOpened(index)) {
+            return RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED;
+        }
+
+        if (hasMine(index)) {
+            setOpened(index, true);
+            listener.fieldRevealed(index);
+            return RevealFieldsResult.RevealFieldState.FOUND_MINE;
+        }
+
+        openedCount += floodReveal(index, listener);
+        return RevealFieldsResult.RevealFieldState.FIELDS_REVEALED;
+    }
+
+    /**
+     * Joue un accord sur la case (x, y) : si elle est ouverte et entourée d'autant de drapeaux que de mines,
+     * toutes ses voisines fermées et sans drapeau sont ouvertes en une seule cascade.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @return Les cases ouvertes et l'état de l'opération ; si une voisine était minée,
+     * {@link RevealFieldsResult#getMineIndex()} désigne cette case.
+     */
+    public RevealFieldsResult chord(int x, int y) {
+        int[] starts = new int[topology.getMaxDegree()];
+        int count = chordStarts(x, y, starts);
+        return count == 0 ? new RevealFieldsResult() : revealAll(starts, count);
+    }
+
+    /**
+     * Joue un accord comme {@link #chord(int, int)}, en signalant chaque case ouverte à l'observateur.
+     * Une case minée est toujours signalée en dernier.
+     *
+     * @param x        La position horizontale de la case.
+     * @param y        La position verticale de la case.
+     * @param listener L'observateur appelé pour chaque case ouverte.
+     * @return L'état de l'opération.
+     */
+    public RevealFieldsResult.RevealFieldState chord(int x, int y, RevealListener listener) {
+        int[] starts = new int[topology.getMaxDegree()];
+        int count = chordStarts(x, y, starts);
+        return count == 0 ? RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED : revealAll(starts, count, listener);
+    }
+
+    /**
+     * Range dans {@code starts} les voisines à ouvrir par un accord sur (x, y).
+     *
+     * @return Le nombre de voisines à ouvrir, 0 si l'accord n'est pas possible.
+     */
+    private int chordStarts(int x, int y, int[] starts) {
+        if (!contains(x, y)) {
+            return 0;
+        }
+        int index = indexOf(x, y);
+        if (!isOpened(index) || hasMine(index)) {
+            return 0;
+        }
+        int[] around = new int[topology.getMaxDegree()];
+        int aroundCount = neighbours(index, around);
+        int flags = 0;
+        int count = 0;
+        for (int i = 0; i < aroundCount; i++) {
+            int neighbour = around[i];
+            if (hasFlag(neighbour)) {
+                flags++;
+            } else if (!isOpened(neighbour)) {
+                starts[count++] = neighbour;
+            }
+        }
+        return flags == getNeighbourMineCount(index) ? count : 0;
+    }
+
+    /**
+     * Ouvre plusieurs cases en une seule cascade : les cases déjà ouvertes par la propagation depuis
+     * l'une d'elles ne sont pas reparcourues, et un seul résultat est construit.
+     * Les cases hors de la grille, ouvertes ou marquées d'un drapeau sont ignorées.
+     * Si des cases minées figurent parmi elles, seule la première est ouverte, après toutes les autres.
+     *
+     * @param coordinates Les cases à ouvrir.
+     * @return Les cases ouvertes et l'état de l'opération ; {@link RevealFieldsResult#getMineIndex()}
+     * désigne la case minée ouverte, s'il y en a une.
+     */
+    public RevealFieldsResult revealAll(Collection<Coordinate> coordinates) {
+        int[] starts = new int[coordinates.size()];
+        int count = 0;
+        for (Coordinate coord : coordinates) {
+            if (contains(coord.getX(), coord.getY())) {
+                starts[count++] = indexOf(coord.getX(), coord.getY());
+            }
+        }
+        return revealAll(starts, count);
+    }
+
+    /**
+     * Ouvre plusieurs cases en une seule cascade, comme {@link #revealAll(Collection)}.
+     *
+     * @param indices Les indices ({@code y * width + x}) des cases à ouvrir.
+     * @param count   Le nombre d'indices à prendre au début du tableau.
+     * @return Les cases ouvertes et l'état de l'opération.
+     */
+    public RevealFieldsResult revealAll(int[] indices, int count) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        int openedBefore = openedCount;
+        int revealed = revealBatch(indices, count, null);
+        if (Metrics.ENABLED) {
+            recordReveal(start, openedBefore);
+        }
+        if (revealed == 0) {
+            return new RevealFieldsResult();
+        }
+        int last = revealQueue[revealed - 1];
+        RevealedFields fields = new RevealedFields(this, Arrays.copyOf(revealQueue, revealed), revealed);
+        return hasMine(last)
+                ? new RevealFieldsResult(fields, RevealFieldsResult.RevealFieldState.FOUND_MINE, last)
+                : new RevealFieldsResult(fields, RevealFieldsResult.RevealFieldState.FIELDS_REVEALED);
+    }
+
+    /**
+     * Ouvre plusieurs cases en une seule cascade, en signalant chaque case ouverte à l'observateur.
+     * Une case minée est toujours signalée en dernier.
+     *
+     * @param indices  Les indices ({@code y * width + x}) des cases à ouvrir.
+     * @param count    Le nombre d'indices à prendre au début du tableau.
+     * @param listener L'observateur appelé pour chaque case ouverte.
+     * @return L'état de l'opération.
+     */
+    public RevealFieldsResult.RevealFieldState revealAll(int[] indices, int count, RevealListener listener) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        int openedBefore = openedCount;
+        int revealed = revealBatch(indices, count, listener);
+        if (Metrics.ENABLED) {
+            recordReveal(start, openedBefore);
+        }
+        if (revealed == 0) {
+            return RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED;
+        }
+        return hasMine(revealQueue[revealed - 1])
+                ? RevealFieldsResult.RevealFieldState.FOUND_MINE
+                : RevealFieldsResult.RevealFieldState.FIELDS_REVEALED;
+    }
+
+    /**
+     * Ouvre les cases sans mine données, propage depuis toutes à la fois, puis ouvre la première case minée.
+     *
+     * @return Le nombre de cases ouvertes, rangées au début de {@code revealQueue}, la case minée en dernier.
+     */
+    private int revealBatch(int[] indices, int count, RevealListener listener) {
+        int seeds = 0;
+        int mine = -1;
+        for (int i = 0; i < count; i++) {
+            int index = indices[i];
+            if (index < 0 || index >= cells.length || (cells[index] & (OPENED | FLAG)) != 0) {
+                continue;
+            }
+            if ((cells[index] & MINE) != 0) {
+                if (mine < 0) {
+                    mine = index;
+                }
+                continue;
+            }
+            cells[index] |= OPENED;
+            if (seeds == revealQueue.length) {
+                revealQueue = Arrays.copyOf(revealQueue, (int) Math.min(cells.length, 2L * revealQueue.length));
+            }
+            revealQueue[seeds++] = index;
+            if (listener != null) {
+                listener.fieldRevealed(index);
+            }
+        }
+        int revealed = seeds == 0 ? 0 : cascade(seeds, listener);
+        openedCount += revealed;
+
+        if (mine >= 0) {
+            setOpened(mine, true);
+            if (revealed == revealQueue.length) {
+                revealQueue = Arrays.copyOf(revealQueue, revealQueue.length + 1);
+            }
+            revealQueue[revealed++] = mine;
+            if (listener != null) {
+                listener.fieldRevealed(mine);
+            }
         }
+        return revealed;
+    }
 
-        revealField(field, revealedFields);
-        return new RevealFieldsResult(revealedFields);
+    private void recordReveal(long startNanos, int openedBefore) {
+        Metrics.REVEAL_LATENCY.recordSince(startNanos);
+        if (openedCount > openedBefore) {
+            Metrics.REVEAL_CASCADE.record(openedCount - openedBefore);
+        }
     }
 
-    private void revealField(Field field, Set<Field> revealedFields) {
-        if (field.isOpened() || field.hasFlag()) {
+    private void revealField(int index, Set<Field> revealedFields) {
+        if ((cells[index] & (OPENED | FLAG)) != 0) {
             return;
         }
-        field.setOpened(true);
-        revealedFields.add(field);
-
-        if (field.getNeighbourMineCount() == 0) {
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dy = -1; dy <= 1; dy++) {
-                    if (dx == 0 && dy == 0) continue;
-                    Coordinate neighbourCoord = new Coordinate(field.getCoordinate(), dx, dy);
-                    Field neighbour = fields.get(neighbourCoord);
-                    if (neighbour != null) {
-                        revealField(neighbour, revealedFields);
+        setOpened(index, true);
+        revealedFields.add(new Field(this, index));
+
+        if ((cells[index] & COUNT_BITS) == 0) {
+            int[] around = new int[topology.getMaxDegree()];
+            int count = neighbours(index, around);
+            for (int i = 0; i < count; i++) {
+                revealField(around[i], revealedFields);
+            }
+        }
+    }
+
+    /**
+     * Ouvre la case donnée puis propage l'ouverture en largeur depuis les cases sans mine voisine.
+     * La file contient exactement les cases ouvertes, dans leur ordre d'ouverture : chaque case
+     * n'y entre qu'une fois puisqu'elle est marquée ouverte au moment de son ajout.
+     *
+     * @param listener L'observateur à prévenir de chaque ouverture, ou null.
+     * @return Le nombre de cases ouvertes, rangées au début de {@code revealQueue}.
+     */
+    private int floodReveal(int start, RevealListener listener) {
+        cells[start] |= OPENED;
+        revealQueue[0] = start;
+        if (listener != null) {
+            listener.fieldRevealed(start);
+        }
+        return cascade(1, listener);
+    }
+
+    /**
+     * Propage l'ouverture en largeur depuis les cases déjà ouvertes et rangées au début de {@code revealQueue}.
+     *
+     * @param seeds    Le nombre de cases de départ.
+     * @param listener L'observateur à prévenir de chaque ouverture, ou null.
+     * @return Le nombre total de cases dans la file, cases de départ comprises.
+     */
+    private int cascade(int seeds, RevealListener listener) {
+        if (neighbourTable != null) {
+            return cascadeTable(seeds, listener);
+        }
+        int[] queue = revealQueue;
+        int head = 0;
+        int tail = seeds;
+        while (head < tail) {
+            int index = queue[head++];
+            if ((cells[index] & COUNT_MASK) != 0) {
+                continue;
+            }
+            int x = index % width;
+            int y = index / width;
+            int minX = Math.max(0, x - 1);
+            int maxX = Math.min(width - 1, x + 1);
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                int row = ny * width;
+                for (int nx = minX; nx <= maxX; nx++) {
+                    int neighbour = row + nx;
+                    if ((cells[neighbour] & (OPENED | FLAG)) == 0) {
+                        cells[neighbour] |= OPENED;
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, (int) Math.min(cells.length, 2L * queue.length));
+                            revealQueue = queue;
+                        }
+                        queue[tail++] = neighbour;
+                        if (listener != null) {
+                            listener.fieldRevealed(neighbour);
+                        }
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Variante de {@link #cascade(int, RevealListener)} qui parcourt la table de voisinage de la topologie.
+     */
+    private int cascadeTable(int seeds, RevealListener listener) {
+        int[] queue = revealQueue;
+        int[] offsets = neighbourOffsets;
+        int[] table = neighbourTable;
+        int head = 0;
+        int tail = seeds;
+        while (head < tail) {
+            int index = queue[head++];
+            if ((cells[index] & COUNT_BITS) != 0) {
+                continue;
+            }
+            for (int k = offsets[index], end = offsets[index + 1]; k < end; k++) {
+                int neighbour = table[k];
+                if ((cells[neighbour] & (OPENED | FLAG)) == 0) {
+                    cells[neighbour] |= OPENED;
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, (int) Math.min(cells.length, 2L * queue.length));
+                        revealQueue = queue;
+                    }
+                    queue[tail++] = neighbour;
+                    if (listener != null) {
+                        listener.fieldRevealed(neighbour);
                     }
                 }
             }
         }
+        return tail;
+    }
+
+    public RevealAlgorithm getRevealAlgorithm() {
+        return revealAlgorithm;
+    }
+
+    public void setRevealAlgorithm(RevealAlgorithm revealAlgorithm) {
+        this.revealAlgorithm = revealAlgorithm;
     }
 
     public int getWidth() {
@@ -127,6 +739,283 @@ public class Board {
     }
 
     public int getMineCount() {
-        return mines.size();
+        return mineCount;
+    }
+
+    /**
+     * @return Le nombre de cases ouvertes, mines comprises.
+     */
+    public int getOpenedCount() {
+        return openedCount;
+    }
+
+    /**
+     * @return Le nombre de drapeaux posés.
+     */
+    public int getFlagCount() {
+        return flagCount;
+    }
+
+    /**
+     * @return Le nombre de drapeaux posés sur une mine.
+     */
+    public int getCorrectFlagCount() {
+        return correctFlagCount;
+    }
+
+    /**
+     * @return Le nombre de cases sans mine qui restent à ouvrir pour gagner.
+     */
+    public int getSafeCellsRemaining() {
+        return cells.length - mineCount - (openedCount - openedMineCount);
+    }
+
+    /**
+     * Nombre de mines restantes tel qu'affiché au joueur : mines moins drapeaux posés.
+     * La valeur peut être négative si le joueur a posé trop de drapeaux.
+     *
+     * @return Le nombre de mines non marquées.
+     */
+    public int getRemainingMineCount() {
+        return mineCount - flagCount;
+    }
+
+    /**
+     * Calcule le 3BV de la grille : le nombre minimal de clics nécessaires pour l'ouvrir entièrement,
+     * soit une ouverture par zone de cases sans mine voisine, plus un clic par case numérotée qui ne borde
+     * aucune de ces zones. Rapporté au temps de jeu, il mesure l'efficacité du joueur indépendamment
+     * de la disposition. Le calcul ne dépend que des mines et parcourt chaque case une fois.
+     *
+     * @return Le 3BV de la grille.
+     */
+    public int getThreeBV() {
+        boolean[] covered = new boolean[cells.length];
+        int[] around = new int[topology.getMaxDegree()];
+        int[] stack = new int[64];
+        int threeBV = 0;
+        for (int start = 0; start < cells.length; start++) {
+            if (covered[start] || (cells[start] & (MINE | COUNT_BITS)) != 0) {
+                continue;
+            }
+            // Une zone sans mine voisine et sa bordure s'ouvrent en un seul clic
+            threeBV++;
+            covered[start] = true;
+            int size = 0;
+            stack[size++] = start;
+            while (size > 0) {
+                int count = neighbours(stack[--size], around);
+                for (int i = 0; i < count; i++) {
+                    int neighbour = around[i];
+                    if (covered[neighbour]) {
+                        continue;
+                    }
+                    covered[neighbour] = true;
+                    if ((cells[neighbour] & COUNT_BITS) == 0) {
+                        if (size == stack.length) {
+                            stack = Arrays.copyOf(stack, 2 * stack.length);
+                        }
+                        stack[size++] = neighbour;
+                    }
+                }
+            }
+        }
+        for (int index = 0; index < cells.length; index++) {
+            if (!covered[index] && (cells[index] & MINE) == 0) {
+                threeBV++;
+            }
+        }
+        return threeBV;
+    }
+
+    /**
+     * @return La forme de la grille.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Range dans {@code out} les indices des voisines d'une case.
+     *
+     * @param out Le tampon de destination, d'au moins {@link Topology#getMaxDegree()} cases.
+     * @return Le nombre de voisines.
+     */
+    private int neighbours(int index, int[] out) {
+        if (neighbourTable != null) {
+            int from = neighbourOffsets[index];
+            int count = neighbourOffsets[index + 1] - from;
+            System.arraycopy(neighbourTable, from, out, 0, count);
+            return count;
+        }
+        int x = index % width;
+        int y = index / width;
+        int count = 0;
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                if (nx != x || ny != y) {
+                    out[count++] = ny * width + nx;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Le nombre total de cases, soit la borne des indices de cases.
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * @return L'indice {@code y * width + x} de la case (x, y).
+     */
+    public int indexOf(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * @return La position horizontale de la case d'indice donné.
+     */
+    public int xOf(int index) {
+        return index % width;
+    }
+
+    /**
+     * @return La position verticale de la case d'indice donné.
+     */
+    public int yOf(int index) {
+        return index / width;
+    }
+
+    /**
+     * Accès direct à l'état compacté, pour les variantes de grille du paquet qui en changent la synchronisation.
+     */
+    byte[] cells() {
+        return cells;
+    }
+
+    public boolean hasMine(int index) {
+        return (cells[index] & MINE) != 0;
+    }
+
+    public boolean isOpened(int index) {
+        return (cells[index] & OPENED) != 0;
+    }
+
+    public boolean hasFlag(int index) {
+        return (cells[index] & FLAG) != 0;
+    }
+
+    public int getNeighbourMineCount(int index) {
+        int cell = cells[index];
+        return (cell & COUNT_MASK) | (cell & COUNT_HIGH) >>> 3;
+    }
+
+    void setMine(int index, boolean mine) {
+        if (hasMine(index) == mine) {
+            return;
+        }
+        int delta = mine ? 1 : -1;
+        cells[index] = (byte) (mine ? cells[index] | MINE : cells[index] & ~MINE);
+        mineCount += delta;
+        if (isOpened(index)) {
+            openedMineCount += delta;
+        }
+        if (hasFlag(index)) {
+            correctFlagCount += delta;
+        }
+        // Seul le voisinage de la case modifiée doit être recompté
+        int[] around = new int[topology.getMaxDegree()];
+        int count = neighbours(index, around);
+        recount(index);
+        for (int i = 0; i < count; i++) {
+            recount(around[i]);
+        }
+    }
+
+    private void recount(int index) {
+        if (hasMine(index)) {
+            return;
+        }
+        setNeighbourMineCount(index, neighbourTable == null
+                ? NeighbourCounter.countAt(cells, width, height, xOf(index), yOf(index))
+                : NeighbourCounter.countAt(cells, neighbourOffsets, neighbourTable, index));
+    }
+
+    void setOpened(int index, boolean opened) {
+        if (isOpened(index) == opened) {
+            return;
+        }
+        int delta = opened ? 1 : -1;
+        cells[index] = (byte) (opened ? cells[index] | OPENED : cells[index] & ~OPENED);
+        openedCount += delta;
+        if (hasMine(index)) {
+            openedMineCount += delta;
+        }
+    }
+
+    void setFlag(int index, boolean flag) {
+        if (hasFlag(index) == flag) {
+            return;
+        }
+        int delta = flag ? 1 : -1;
+        cells[index] = (byte) (flag ? cells[index] | FLAG : cells[index] & ~FLAG);
+        flagCount += delta;
+        if (hasMine(index)) {
+            correctFlagCount += delta;
+        }
+    }
+
+    void setNeighbourMineCount(int index, int count) {
+        cells[index] = (byte) ((cells[index] & ~COUNT_BITS) | encodeCount(count));
+    }
+
+    /**
+     * @return Les bits de l'octet d'une case représentant le nombre de mines voisines donné.
+     */
+    static int encodeCount(int count) {
+        return (count & COUNT_MASK) | (count & 0x10) << 3;
+    }
+
+    /**
+     * Parcourt les cases dont l'état contient tous les bits du masque donné
+     * (un masque nul parcourt toutes les cases).
+     */
+    private class CellIterator implements Iterator<Field> {
+        private final int mask;
+        private int next;
+
+        CellIterator(int mask) {
+            this.mask = mask;
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            int index = from;
+            while (index < cells.length && (cells[index] & mask) != mask) {
+                index++;
+            }
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < cells.length;
+        }
+
+        @Override
+        public Field next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Field field = new Field(Board.this, next);
+            next = advance(next + 1);
+            return field;
+        }
     }
 }
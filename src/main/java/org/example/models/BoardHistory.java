@@ -0,0 +1,339 @@
+package org.example.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Historique persistant des coups joués sur une grille, avec annulation, rétablissement et branches.
+ * <p>
+ * Chaque coup crée une {@link Version} qui ne conserve que sa différence avec la version parente :
+ * les indices des cases ouvertes par une cascade, ou la case dont le drapeau a changé. Un coup qui
+ * ouvre k cases coûte donc O(k) en mémoire, quelle que soit la taille de la grille, et toutes les
+ * versions partagent l'état de leurs ancêtres. Les versions forment un arbre : rejouer un coup différent
+ * après une annulation crée une nouvelle branche sans effacer l'ancienne, et {@link #checkout(Version)}
+ * passe d'une branche à l'autre en défaisant puis en rejouant uniquement les coups qui les séparent.
+ * <p>
+ * Un solveur peut ainsi essayer un coup hypothétique sur la grille puis revenir à la version de départ.
+ * Inscrit comme {@link Listener}, un {@link org.example.solver.ConstraintSolver} suit les coups joués,
+ * annulés ou rejoués, et défait les déductions tirées d'un coup en même temps que lui :
+ * <pre>
+ * history.addListener(solver);
+ * BoardHistory.Version base = history.getCurrentVersion();
+ * history.reveal(x, y);
+ * solver.deduce();
+ * // ... analyse de la grille et des déductions ...
+ * history.checkout(base);
+ * </pre>
+ * Une seule grille est modifiée en place : elle ne doit être jouée qu'au travers de l'historique,
+ * par un seul thread. Les mines ne sont jamais déplacées, ce qui exclut les grilles dont les mines
+ * sont replacées au premier clic tant que ce clic n'a pas eu lieu.
+ */
+public class BoardHistory {
+
+    /**
+     * Observateur des coups appliqués ou défaits sur la grille par l'historique.
+     */
+    public interface Listener {
+
+        /**
+         * Appelée après qu'un coup a été joué, rétabli ou rejoué par {@link #checkout(Version)}.
+         *
+         * @param version La version du coup, désormais courante.
+         */
+        void versionApplied(Version version);
+
+        /**
+         * Appelée après qu'un coup a été défait, par {@link #undo()} ou {@link #checkout(Version)}.
+         * Les coups sont toujours défaits du plus récent au plus ancien.
+         *
+         * @param version La version du coup défait.
+         */
+        void versionReverted(Version version);
+    }
+
+    /**
+     * Version de la grille après un coup. Une version est immuable, à l'exception du
+     * coup à rétablir, qui ne sert qu'à la navigation.
+     */
+    public static final class Version {
+        private final Version parent;
+        private final int depth;
+        // Cases ouvertes par le coup, ou null pour un changement de drapeau
+        private final int[] opened;
+        // Case dont le drapeau a changé, ou -1
+        private final int flagged;
+        // Dernier coup joué ou rétabli depuis cette version, proposé par redo()
+        private Version redo;
+
+        private Version(Version parent, int[] opened, int flagged) {
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.opened = opened;
+            this.flagged = flagged;
+        }
+
+        /**
+         * @return La version précédente, ou null pour la version initiale.
+         */
+        public Version getParent() {
+            return parent;
+        }
+
+        /**
+         * @return Le nombre de coups depuis la version initiale.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return Le nombre de cases ouvertes par le coup de cette version.
+         */
+        public int getOpenedCount() {
+            return opened == null ? 0 : opened.length;
+        }
+
+        /**
+         * @param position La position de la case, entre 0 et {@link #getOpenedCount()} exclu.
+         * @return L'indice {@code y * width + x} d'une case ouverte par le coup de cette version.
+         */
+        public int getOpenedIndex(int position) {
+            return opened[position];
+        }
+
+        /**
+         * @return true si le coup de cette version pose ou retire un drapeau.
+         */
+        public boolean isFlag() {
+            return flagged >= 0;
+        }
+    }
+
+    private final Board board;
+    private final Version root;
+    private final List<Listener> listeners = new ArrayList<>();
+    private Version current;
+
+    // Tampon des cases ouvertes par le coup en cours
+    private int[] revealed = new int[64];
+    private int revealedCount;
+    private final RevealListener collector = this::collect;
+
+    /**
+     * Crée l'historique d'une grille, dont l'état actuel devient la version initiale.
+     *
+     * @param board La grille, qui ne doit plus être modifiée qu'au travers de l'historique.
+     */
+    public BoardHistory(Board board) {
+        this.board = board;
+        this.root = new Version(null, null, -1);
+        this.current = root;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Inscrit un observateur des coups appliqués et défaits à partir de maintenant.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return La version initiale, avant tout coup.
+     */
+    public Version getRoot() {
+        return root;
+    }
+
+    /**
+     * @return La version correspondant à l'état actuel de la grille.
+     */
+    public Version getCurrentVersion() {
+        return current;
+    }
+
+    /**
+     * Ouvre la case (x, y) et enregistre les cases ouvertes comme une nouvelle version.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @return L'état de l'opération ; aucune version n'est créée si aucune case n'est ouverte.
+     */
+    public RevealFieldsResult.RevealFieldState reveal(int x, int y) {
+        return reveal(x, y, null);
+    }
+
+    /**
+     * Ouvre la case (x, y) comme {@link #reveal(int, int)}, en signalant chaque case ouverte à un observateur.
+     *
+     * @param x        La position horizontale de la case.
+     * @param y        La position verticale de la case.
+     * @param listener L'observateur appelé pour chaque case ouverte, ou null.
+     * @return L'état de l'opération.
+     */
+    public RevealFieldsResult.RevealFieldState reveal(int x, int y, RevealListener listener) {
+        revealedCount = 0;
+        RevealFieldsResult.RevealFieldState state = board.revealFields(x, y, listener == null ? collector : index -> {
+            collect(index);
+            listener.fieldRevealed(index);
+        });
+        if (revealedCount > 0) {
+            push(new Version(current, Arrays.copyOf(revealed, revealedCount), -1));
+        }
+        return state;
+    }
+
+    private void collect(int index) {
+        if (revealedCount == revealed.length) {
+            revealed = Arrays.copyOf(revealed, Math.min(board.getCellCount(), 2 * revealed.length));
+        }
+        revealed[revealedCount++] = index;
+    }
+
+    /**
+     * Pose ou retire un drapeau sur la case (x, y) et enregistre le changement comme une nouvelle version.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @return true si le drapeau a changé, false si la case est ouverte ou hors de la grille.
+     */
+    public boolean flag(int x, int y) {
+        if (!board.contains(x, y) || board.isOpened(board.indexOf(x, y))) {
+            return false;
+        }
+        int index = board.indexOf(x, y);
+        board.setFlag(index, !board.hasFlag(index));
+        push(new Version(current, null, index));
+        return true;
+    }
+
+    private void push(Version version) {
+        current.redo = version;
+        current = version;
+        for (Listener listener : listeners) {
+            listener.versionApplied(version);
+        }
+    }
+
+    /**
+     * @return true s'il existe un coup à annuler.
+     */
+    public boolean canUndo() {
+        return current != root;
+    }
+
+    /**
+     * @return true s'il existe un coup annulé à rétablir.
+     */
+    public boolean canRedo() {
+        return current.redo != null;
+    }
+
+    /**
+     * Annule le dernier coup, en O(nombre de cases qu'il a modifiées).
+     *
+     * @return true si un coup a été annulé.
+     */
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        Version undone = current;
+        revert(undone);
+        current = undone.parent;
+        current.redo = undone;
+        return true;
+    }
+
+    /**
+     * Rétablit le dernier coup annulé depuis la version courante.
+     *
+     * @return true si un coup a été rétabli.
+     */
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        current = current.redo;
+        apply(current);
+        return true;
+    }
+
+    /**
+     * Ramène la grille à une version quelconque de l'historique, éventuellement sur une autre branche.
+     * Seuls les coups entre la version courante, leur ancêtre commun et la version visée sont défaits
+     * ou rejoués.
+     *
+     * @param target La version visée.
+     * @throws IllegalArgumentException Si la version n'appartient pas à cet historique.
+     */
+    public void checkout(Version target) {
+        Version from = current;
+        Version to = target;
+        Version[] path = new Version[to.depth];
+        int pathLength = 0;
+
+        // Recherche de l'ancêtre commun, en notant les versions à rejouer
+        while (to.depth > from.depth) {
+            path[pathLength++] = to;
+            to = to.parent;
+        }
+        Version ancestor = from;
+        while (ancestor.depth > to.depth) {
+            ancestor = ancestor.parent;
+        }
+        while (ancestor != to) {
+            if (to.parent == null) {
+                throw new IllegalArgumentException("Version does not belong to this history");
+            }
+            path[pathLength++] = to;
+            to = to.parent;
+            ancestor = ancestor.parent;
+        }
+
+        while (current != ancestor) {
+            revert(current);
+            current.parent.redo = current;
+            current = current.parent;
+        }
+        for (int i = pathLength - 1; i >= 0; i--) {
+            current.redo = path[i];
+            current = path[i];
+            apply(current);
+        }
+    }
+
+    private void apply(Version version) {
+        if (version.opened == null) {
+            board.setFlag(version.flagged, !board.hasFlag(version.flagged));
+        } else {
+            for (int index : version.opened) {
+                board.setOpened(index, true);
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.versionApplied(version);
+        }
+    }
+
+    private void revert(Version version) {
+        if (version.opened == null) {
+            board.setFlag(version.flagged, !board.hasFlag(version.flagged));
+        } else {
+            for (int index : version.opened) {
+                board.setOpened(index, false);
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.versionReverted(version);
+        }
+    }
+}
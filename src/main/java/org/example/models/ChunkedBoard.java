@@ -0,0 +1,358 @@
+package org.example.models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.example.models.Board.COUNT_MASK;
+import static org.example.models.Board.FLAG;
+import static org.example.models.Board.MINE;
+import static org.example.models.Board.OPENED;
+
+/**
+ * Grille de démineur sans bornes, découpée en tronçons de {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} cases.
+ * La disposition des mines d'un tronçon ne dépend que de la graine du monde et des coordonnées du tronçon :
+ * un tronçon n'est donc créé que lorsqu'une révélation ou un affichage le touche, et un tronçon jamais
+ * modifié peut être oublié puis régénéré à l'identique. Au-delà du budget de tronçons résidents,
+ * les moins récemment utilisés sont évincés ; ceux qui portent un état de jeu (cases ouvertes ou drapeaux)
+ * sont écrits dans le répertoire de débordement s'il y en a un, et conservés en mémoire sinon.
+ * La mémoire consommée dépend ainsi de la zone explorée et non de la taille de la grille.
+ * <p>
+ * Sans répertoire de débordement, un tronçon touché par le jeu n'est donc jamais évincé : le budget
+ * ne borne que les tronçons seulement affichés, et la mémoire croît avec la zone jouée sans limite.
+ * Une partie longue sur une grille sans bornes doit fournir un répertoire de débordement.
+ */
+public class ChunkedBoard {
+
+    public static final int CHUNK_SIZE = 64;
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int LOCAL_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+
+    // Une case sans mine voisine demande 9 cases sans mine : vers 10 % de mines, ces cases percolent
+    // et une cascade ne s'arrête plus. À 15 %, elles restent nettement sous le seuil et les cascades restent locales.
+    public static final int MIN_MINES_PER_CHUNK = CHUNK_CELLS * 15 / 100;
+
+    private final long worldSeed;
+    private final int minesPerChunk;
+    private final int maxResidentChunks;
+    private final Path spillDirectory;
+    private final MineLayoutGenerator generator = MineLayoutGenerator.floyd();
+
+    // Tronçons résidents, du moins récemment utilisé au plus récent
+    private final LinkedHashMap<Long, Chunk> chunks = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Tronçons modifiés évincés sur disque
+    private final Set<Long> spilledChunks = new HashSet<>();
+
+    // Dernier tronçon utilisé, pour éviter une recherche dans la table à chaque case
+    private Chunk lastChunk;
+
+    private long[] revealQueue = new long[64];
+    private long openedCount;
+    private long flagCount;
+
+    /**
+     * Construit une grille sans bornes dont les tronçons modifiés restent toujours en mémoire,
+     * sans limite de nombre.
+     *
+     * @param worldSeed         La graine du monde.
+     * @param minesPerChunk     Le nombre exact de mines par tronçon.
+     * @param maxResidentChunks Le nombre de tronçons gardés en mémoire avant éviction.
+     */
+    public ChunkedBoard(long worldSeed, int minesPerChunk, int maxResidentChunks) {
+        this(worldSeed, minesPerChunk, maxResidentChunks, null);
+    }
+
+    /**
+     * Construit une grille sans bornes.
+     *
+     * @param worldSeed         La graine du monde.
+     * @param minesPerChunk     Le nombre exact de mines par tronçon.
+     * @param maxResidentChunks Le nombre de tronçons gardés en mémoire avant éviction.
+     * @param spillDirectory    Le répertoire où écrire les tronçons modifiés évincés, ou null pour les garder en mémoire :
+     *                          le budget ne s'applique alors qu'aux tronçons jamais modifiés.
+     * @throws IllegalArgumentException Si la densité de mines est hors de [{@value #MIN_MINES_PER_CHUNK}, 4096]
+     *                                  ou si le budget de tronçons n'est pas positif.
+     */
+    public ChunkedBoard(long worldSeed, int minesPerChunk, int maxResidentChunks, Path spillDirectory) {
+        if (minesPerChunk < MIN_MINES_PER_CHUNK || minesPerChunk > CHUNK_CELLS) {
+            throw new IllegalArgumentException("Mines per chunk must be between " + MIN_MINES_PER_CHUNK + " and " + CHUNK_CELLS);
+        }
+        if (maxResidentChunks <= 0) {
+            throw new IllegalArgumentException("Resident chunk budget must be positive");
+        }
+        this.worldSeed = worldSeed;
+        this.minesPerChunk = minesPerChunk;
+        this.maxResidentChunks = maxResidentChunks;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Ouvre la case (x, y) et propage l'ouverture depuis les cases sans mine voisine,
+     * y compris au travers des bordures de tronçons.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @return Les cases ouvertes et l'état de l'opération.
+     */
+    public ChunkedRevealResult revealFields(int x, int y) {
+        Chunk start = chunkAt(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        int local = localIndex(x, y);
+        int cell = start.cells[local];
+        if ((cell & (OPENED | FLAG)) != 0) {
+            enforceBudget();
+            return new ChunkedRevealResult();
+        }
+
+        start.open(local);
+        openedCount++;
+        if ((cell & MINE) != 0) {
+            enforceBudget();
+            return new ChunkedRevealResult(new long[]{PackedCoordinate.pack(x, y)}, 1, RevealFieldsResult.RevealFieldState.FOUND_MINE);
+        }
+
+        long[] queue = revealQueue;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = PackedCoordinate.pack(x, y);
+        while (head < tail) {
+            long current = queue[head++];
+            int cx = PackedCoordinate.x(current);
+            int cy = PackedCoordinate.y(current);
+            if ((chunkAt(cx >> CHUNK_SHIFT, cy >> CHUNK_SHIFT).cells[localIndex(cx, cy)] & COUNT_MASK) != 0) {
+                continue;
+            }
+            for (int ny = cy - 1; ny <= cy + 1; ny++) {
+                for (int nx = cx - 1; nx <= cx + 1; nx++) {
+                    Chunk chunk = chunkAt(nx >> CHUNK_SHIFT, ny >> CHUNK_SHIFT);
+                    int neighbour = localIndex(nx, ny);
+                    if ((chunk.cells[neighbour] & (OPENED | FLAG)) == 0) {
+                        chunk.open(neighbour);
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, queue.length * 2);
+                            revealQueue = queue;
+                        }
+                        queue[tail++] = PackedCoordinate.pack(nx, ny);
+                    }
+                }
+            }
+        }
+        openedCount += tail - 1;
+        enforceBudget();
+        return new ChunkedRevealResult(Arrays.copyOf(queue, tail), tail, RevealFieldsResult.RevealFieldState.FIELDS_REVEALED);
+    }
+
+    /**
+     * Pose ou retire un drapeau sur la case (x, y) si elle n'est pas ouverte.
+     *
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     */
+    public void flagField(int x, int y) {
+        Chunk chunk = chunkAt(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        int local = localIndex(x, y);
+        if ((chunk.cells[local] & OPENED) == 0) {
+            chunk.cells[local] ^= FLAG;
+            chunk.touched = true;
+            flagCount += (chunk.cells[local] & FLAG) != 0 ? 1 : -1;
+        }
+        enforceBudget();
+    }
+
+    public boolean isOpened(int x, int y) {
+        return (cellAt(x, y) & OPENED) != 0;
+    }
+
+    public boolean hasFlag(int x, int y) {
+        return (cellAt(x, y) & FLAG) != 0;
+    }
+
+    public boolean hasMine(int x, int y) {
+        return (cellAt(x, y) & MINE) != 0;
+    }
+
+    public int getNeighbourMineCount(int x, int y) {
+        return cellAt(x, y) & COUNT_MASK;
+    }
+
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    public int getMinesPerChunk() {
+        return minesPerChunk;
+    }
+
+    /**
+     * @return Le nombre de tronçons actuellement en mémoire.
+     */
+    public int getResidentChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return Le nombre de cases ouvertes depuis le début de la partie.
+     */
+    public long getOpenedCount() {
+        return openedCount;
+    }
+
+    /**
+     * @return Le nombre de drapeaux posés.
+     */
+    public long getFlagCount() {
+        return flagCount;
+    }
+
+    private int cellAt(int x, int y) {
+        int cell = chunkAt(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT).cells[localIndex(x, y)];
+        enforceBudget();
+        return cell;
+    }
+
+    private static int localIndex(int x, int y) {
+        return ((y & LOCAL_MASK) << CHUNK_SHIFT) | (x & LOCAL_MASK);
+    }
+
+    /**
+     * Retourne le tronçon (cx, cy), en le relisant depuis le disque ou en le générant s'il n'est pas résident.
+     * Aucune éviction n'a lieu ici, pour qu'une cascade en cours ne perde jamais un tronçon qu'elle modifie ;
+     * le budget est appliqué à la fin de chaque opération publique.
+     */
+    private Chunk chunkAt(int cx, int cy) {
+        Chunk chunk = lastChunk;
+        if (chunk != null && chunk.cx == cx && chunk.cy == cy) {
+            return chunk;
+        }
+        Long key = PackedCoordinate.pack(cx, cy);
+        chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = spilledChunks.remove(key) ? readSpilled(cx, cy) : generate(cx, cy);
+            chunks.put(key, chunk);
+        }
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    private Chunk generate(int cx, int cy) {
+        // Masque des mines du tronçon et d'une bordure d'une case prise dans les tronçons voisins
+        int padded = CHUNK_SIZE + 2;
+        byte[] mask = new byte[padded * padded];
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int mine : layout(cx + dx, cy + dy)) {
+                    int px = (mine & LOCAL_MASK) + dx * CHUNK_SIZE + 1;
+                    int py = (mine >> CHUNK_SHIFT) + dy * CHUNK_SIZE + 1;
+                    if (px >= 0 && px < padded && py >= 0 && py < padded) {
+                        mask[py * padded + px] = MINE;
+                    }
+                }
+            }
+        }
+        NeighbourCounter.countBand(mask, padded, padded, 1, padded - 1);
+
+        Chunk chunk = new Chunk(cx, cy);
+        for (int y = 0; y < CHUNK_SIZE; y++) {
+            System.arraycopy(mask, (y + 1) * padded + 1, chunk.cells, y * CHUNK_SIZE, CHUNK_SIZE);
+        }
+        return chunk;
+    }
+
+    private int[] layout(int cx, int cy) {
+        return generator.generate(CHUNK_SIZE, CHUNK_SIZE, minesPerChunk, chunkSeed(cx, cy));
+    }
+
+    private long chunkSeed(int cx, int cy) {
+        return mix(worldSeed ^ mix(PackedCoordinate.pack(cx, cy)));
+    }
+
+    // Fonction de mélange de SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Évince les tronçons les moins récemment utilisés jusqu'à revenir sous le budget.
+     * Un tronçon intact est simplement oublié ; un tronçon modifié est écrit sur disque
+     * ou, faute de répertoire de débordement, conservé.
+     */
+    private void enforceBudget() {
+        if (chunks.size() <= maxResidentChunks) {
+            return;
+        }
+        Iterator<Map.Entry<Long, Chunk>> iterator = chunks.entrySet().iterator();
+        while (chunks.size() > maxResidentChunks && iterator.hasNext()) {
+            Map.Entry<Long, Chunk> entry = iterator.next();
+            Chunk chunk = entry.getValue();
+            if (chunk.touched) {
+                if (spillDirectory == null) {
+                    continue;
+                }
+                writeSpilled(chunk);
+                spilledChunks.add(entry.getKey());
+            }
+            iterator.remove();
+            if (chunk == lastChunk) {
+                lastChunk = null;
+            }
+        }
+    }
+
+    private Path spillFile(int cx, int cy) {
+        return spillDirectory.resolve("chunk_" + cx + "_" + cy + ".bin");
+    }
+
+    private void writeSpilled(Chunk chunk) {
+        try {
+            Files.write(spillFile(chunk.cx, chunk.cy), chunk.cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot spill chunk " + chunk.cx + "/" + chunk.cy, e);
+        }
+    }
+
+    private Chunk readSpilled(int cx, int cy) {
+        try {
+            Path file = spillFile(cx, cy);
+            Chunk chunk = new Chunk(cx, cy);
+            System.arraycopy(Files.readAllBytes(file), 0, chunk.cells, 0, CHUNK_CELLS);
+            chunk.touched = true;
+            Files.delete(file);
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spilled chunk " + cx + "/" + cy, e);
+        }
+    }
+
+    /**
+     * Tronçon de cases au même format compacté que {@link Board}.
+     */
+    private static final class Chunk {
+        private final int cx;
+        private final int cy;
+        private final byte[] cells = new byte[CHUNK_CELLS];
+
+        // Indique si le tronçon porte un état de jeu et ne peut pas être régénéré
+        private boolean touched;
+
+        Chunk(int cx, int cy) {
+            this.cx = cx;
+            this.cy = cy;
+        }
+
+        void open(int local) {
+            cells[local] |= OPENED;
+            touched = true;
+        }
+    }
+}
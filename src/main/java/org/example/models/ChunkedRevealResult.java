@@ -0,0 +1,84 @@
+package org.example.models;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Résultat d'une révélation sur une grille sans bornes ({@link ChunkedBoard}).
+ * Les cases ouvertes sont conservées sous forme de coordonnées compactées dans un tableau de {@code long},
+ * les objets {@link Coordinate} n'étant créés qu'à la demande.
+ */
+public class ChunkedRevealResult {
+
+    private final long[] revealed;
+    private final int size;
+    private final RevealFieldsResult.RevealFieldState state;
+
+    /**
+     * @param revealed Les coordonnées compactées des cases ouvertes.
+     * @param size     Le nombre de coordonnées valides au début du tableau.
+     * @param state    L'état de l'opération.
+     */
+    ChunkedRevealResult(long[] revealed, int size, RevealFieldsResult.RevealFieldState state) {
+        this.revealed = revealed;
+        this.size = size;
+        this.state = state;
+    }
+
+    /**
+     * Résultat vide, lorsqu'aucune case n'a été ouverte.
+     */
+    ChunkedRevealResult() {
+        this(new long[0], 0, RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED);
+    }
+
+    /**
+     * @return L'état de l'opération.
+     */
+    public RevealFieldsResult.RevealFieldState getState() {
+        return state;
+    }
+
+    /**
+     * @return Le nombre de cases ouvertes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i Le rang de la case ouverte, entre 0 et {@link #size()} exclu.
+     * @return La position horizontale de la case.
+     */
+    public int getX(int i) {
+        return PackedCoordinate.x(revealed[i]);
+    }
+
+    /**
+     * @param i Le rang de la case ouverte, entre 0 et {@link #size()} exclu.
+     * @return La position verticale de la case.
+     */
+    public int getY(int i) {
+        return PackedCoordinate.y(revealed[i]);
+    }
+
+    /**
+     * @return Une vue en lecture seule des coordonnées des cases ouvertes.
+     */
+    public List<Coordinate> getRevealedCoordinates() {
+        return new AbstractList<>() {
+            @Override
+            public Coordinate get(int i) {
+                if (i < 0 || i >= size) {
+                    throw new IndexOutOfBoundsException(i);
+                }
+                return PackedCoordinate.toCoordinate(revealed[i]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,364 @@
+package org.example.models;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Grille partagée sur laquelle plusieurs joueurs ouvrent et marquent des cases en même temps.
+ * <p>
+ * L'état compacté de {@link Board} est conservé, mais chaque transition d'une case (ouverture, pose
+ * ou retrait d'un drapeau) est une comparaison-échange sur son octet : une case n'est ouverte qu'une fois,
+ * par le seul coup qui remporte l'échange, et ne peut pas recevoir de drapeau une fois ouverte.
+ * Les cascades qui se recouvrent ne se bloquent jamais : lorsqu'un coup trouve une case déjà ouverte
+ * par un autre, il s'arrête là, et c'est le coup qui a ouvert la case qui propage depuis elle.
+ * <p>
+ * Le résultat de chaque coup contient exactement les cases que ce coup a ouvertes. Les résultats de
+ * coups concurrents sont disjoints et leur réunion est l'ensemble des cases ouvertes, comme si les
+ * ouvertures de chaque case avaient eu lieu une à une dans un ordre total.
+ * Les compteurs sont des {@link LongAdder} mis à jour une fois par coup ; ils reflètent tous les coups terminés.
+ * <p>
+ * La disposition des mines est figée : {@link #reset(int[])} et la modification des mines ne sont pas permises.
+ */
+public class ConcurrentBoard extends Board {
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    // File de la cascade, propre à chaque thread et réutilisée d'un coup à l'autre
+    private static final ThreadLocal<int[]> REVEAL_QUEUES = ThreadLocal.withInitial(() -> new int[64]);
+
+    private final byte[] cells;
+    private final int width;
+    private final int height;
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder openedMineCount = new LongAdder();
+    private final LongAdder flagCount = new LongAdder();
+    private final LongAdder correctFlagCount = new LongAdder();
+
+    /**
+     * Construit une grille partagée à partir d'indices de cases minées.
+     *
+     * @param width       La largeur de la grille.
+     * @param height      La hauteur de la grille.
+     * @param mineIndices Les indices ({@code y * width + x}) des cases minées.
+     */
+    public ConcurrentBoard(int width, int height, int[] mineIndices) {
+        super(width, height, mineIndices);
+        this.cells = cells();
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Ouvre la case (x, y) et propage l'ouverture comme {@link Board#revealFields(int, int)}.
+     * Peut être appelée par plusieurs threads à la fois.
+     */
+    @Override
+    public RevealFieldsResult revealFields(int x, int y) {
+        if (!contains(x, y)) {
+            return new RevealFieldsResult();
+        }
+        int start = indexOf(x, y);
+        int count = reveal(start, null);
+        if (count == 0) {
+            return new RevealFieldsResult();
+        }
+        int[] revealed = Arrays.copyOf(REVEAL_QUEUES.get(), count);
+        RevealFieldsResult.RevealFieldState state = count == 1 && hasMine(start)
+                ? RevealFieldsResult.RevealFieldState.FOUND_MINE
+                : RevealFieldsResult.RevealFieldState.FIELDS_REVEALED;
+        return new RevealFieldsResult(new RevealedFields(this, revealed, count), state);
+    }
+
+    /**
+     * Variante sans construction de résultat. L'observateur est appelé sur le thread du coup,
+     * pour les seules cases ouvertes par ce coup.
+     */
+    @Override
+    public RevealFieldsResult.RevealFieldState revealFields(int x, int y, RevealListener listener) {
+        if (!contains(x, y)) {
+            return RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED;
+        }
+        int start = indexOf(x, y);
+        int count = reveal(start, listener);
+        if (count == 0) {
+            return RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED;
+        }
+        return count == 1 && hasMine(start)
+                ? RevealFieldsResult.RevealFieldState.FOUND_MINE
+                : RevealFieldsResult.RevealFieldState.FIELDS_REVEALED;
+    }
+
+    /**
+     * Ouvre la case de départ puis propage en largeur. Seules les cases dont ce coup remporte
+     * l'ouverture entrent dans la file, et seules celles-ci sont propagées.
+     *
+     * @return Le nombre de cases ouvertes par ce coup, rangées au début de la file du thread.
+     */
+    private int reveal(int start, RevealListener listener) {
+        if (!tryOpen(start)) {
+            return 0;
+        }
+        int[] files = REVEAL_QUEUES.get();
+        files[0] = start;
+        if (listener != null) {
+            listener.fieldRevealed(start);
+        }
+        if (hasMine(start)) {
+            openedCount.increment();
+            openedMineCount.increment();
+            return 1;
+        }
+
+        int tail = cascade(files, 1, listener);
+        openedCount.add(tail);
+        return tail;
+    }
+
+    /**
+     * Ouvre plusieurs cases en une seule cascade, comme {@link Board#revealAll(int[], int)}.
+     * Peut être appelée par plusieurs threads à la fois ; le résultat ne contient que les cases ouvertes par cet appel.
+     */
+    @Override
+    public RevealFieldsResult revealAll(int[] indices, int count) {
+        int revealed = revealBatch(indices, count, null);
+        if (revealed == 0) {
+            return new RevealFieldsResult();
+        }
+        int[] queue = REVEAL_QUEUES.get();
+        int last = queue[revealed - 1];
+        RevealedFields fields = new RevealedFields(this, Arrays.copyOf(queue, revealed), revealed);
+        return hasMine(last)
+                ? new RevealFieldsResult(fields, RevealFieldsResult.RevealFieldState.FOUND_MINE, last)
+                : new RevealFieldsResult(fields, RevealFieldsResult.RevealFieldState.FIELDS_REVEALED);
+    }
+
+    @Override
+    public RevealFieldsResult.RevealFieldState revealAll(int[] indices, int count, RevealListener listener) {
+        int revealed = revealBatch(indices, count, listener);
+        if (revealed == 0) {
+            return RevealFieldsResult.RevealFieldState.FIELD_NOT_REVEALED;
+        }
+        return hasMine(REVEAL_QUEUES.get()[revealed - 1])
+                ? RevealFieldsResult.RevealFieldState.FOUND_MINE
+                : RevealFieldsResult.RevealFieldState.FIELDS_REVEALED;
+    }
+
+    /**
+     * Ouvre les cases sans mine données dont ce coup remporte l'ouverture, propage depuis toutes à la fois,
+     * puis ouvre la première case minée.
+     *
+     * @return Le nombre de cases ouvertes par ce coup, rangées au début de la file du thread, la case minée en dernier.
+     */
+    private int revealBatch(int[] indices, int count, RevealListener listener) {
+        int[] files = REVEAL_QUEUES.get();
+        int seeds = 0;
+        int mine = -1;
+        for (int i = 0; i < count; i++) {
+            int index = indices[i];
+            if (index < 0 || index >= cells.length) {
+                continue;
+            }
+            if ((cells[index] & MINE) != 0) {
+                if (mine < 0 && ((byte) CELLS.getVolatile(cells, index) & (OPENED | FLAG)) == 0) {
+                    mine = index;
+                }
+                continue;
+            }
+            if (tryOpen(index)) {
+                if (seeds == files.length) {
+                    files = Arrays.copyOf(files, (int) Math.min(cells.length, 2L * files.length));
+                    REVEAL_QUEUES.set(files);
+                }
+                files[seeds++] = index;
+                if (listener != null) {
+                    listener.fieldRevealed(index);
+                }
+            }
+        }
+        int revealed = seeds == 0 ? 0 : cascade(files, seeds, listener);
+        openedCount.add(revealed);
+
+        if (mine >= 0 && tryOpen(mine)) {
+            files = REVEAL_QUEUES.get();
+            if (revealed == files.length) {
+                files = Arrays.copyOf(files, files.length + 1);
+                REVEAL_QUEUES.set(files);
+            }
+            files[revealed++] = mine;
+            openedCount.increment();
+            openedMineCount.increment();
+            if (listener != null) {
+                listener.fieldRevealed(mine);
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * Propage en largeur depuis les {@code seeds} cases déjà ouvertes au début de la file.
+     *
+     * @return Le nombre de cases dans la file, cases de départ comprises.
+     */
+    private int cascade(int[] files, int seeds, RevealListener listener) {
+        int head = 0;
+        int tail = seeds;
+        while (head < tail) {
+            int index = files[head++];
+            if ((cells[index] & COUNT_MASK) != 0) {
+                continue;
+            }
+            int x = index % width;
+            int y = index / width;
+            int minX = Math.max(0, x - 1);
+            int maxX = Math.min(width - 1, x + 1);
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                int row = ny * width;
+                for (int nx = minX; nx <= maxX; nx++) {
+                    int neighbour = row + nx;
+                    if (tryOpen(neighbour)) {
+                        if (tail == files.length) {
+                            files = Arrays.copyOf(files, (int) Math.min(cells.length, 2L * files.length));
+                            REVEAL_QUEUES.set(files);
+                        }
+                        files[tail++] = neighbour;
+                        if (listener != null) {
+                            listener.fieldRevealed(neighbour);
+                        }
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Ouvre la case si elle n'est ni ouverte ni marquée.
+     *
+     * @return true si cet appel a ouvert la case.
+     */
+    private boolean tryOpen(int index) {
+        byte current;
+        do {
+            current = (byte) CELLS.getVolatile(cells, index);
+            if ((current & (OPENED | FLAG)) != 0) {
+                return false;
+            }
+        } while (!CELLS.compareAndSet(cells, index, current, (byte) (current | OPENED)));
+        return true;
+    }
+
+    /**
+     * Pose ou retire un drapeau sur la case (x, y) si elle n'est pas ouverte.
+     * Peut être appelée par plusieurs threads à la fois.
+     */
+    @Override
+    public void flagField(int x, int y) {
+        if (contains(x, y)) {
+            toggleFlag(indexOf(x, y), null);
+        }
+    }
+
+    /**
+     * Inverse le drapeau, ou le fixe à {@code target} s'il est non nul.
+     */
+    private void toggleFlag(int index, Boolean target) {
+        byte current;
+        byte next;
+        do {
+            current = (byte) CELLS.getVolatile(cells, index);
+            boolean flagged = (current & FLAG) != 0;
+            if ((current & OPENED) != 0 || (target != null && flagged == target)) {
+                return;
+            }
+            next = (byte) (current ^ FLAG);
+        } while (!CELLS.compareAndSet(cells, index, current, next));
+        int delta = (next & FLAG) != 0 ? 1 : -1;
+        flagCount.add(delta);
+        if ((current & MINE) != 0) {
+            correctFlagCount.add(delta);
+        }
+    }
+
+    @Override
+    void setFlag(int index, boolean flag) {
+        toggleFlag(index, flag);
+    }
+
+    /**
+     * Ouvre une case sans propagation. Une case ouverte ne peut pas être refermée sur une grille partagée.
+     */
+    @Override
+    void setOpened(int index, boolean opened) {
+        if (!opened) {
+            throw new UnsupportedOperationException("Cells of a shared board cannot be closed");
+        }
+        if (tryOpen(index)) {
+            openedCount.increment();
+            if (hasMine(index)) {
+                openedMineCount.increment();
+            }
+        }
+    }
+
+    @Override
+    void setMine(int index, boolean mine) {
+        throw new UnsupportedOperationException("The mine layout of a shared board is fixed");
+    }
+
+    @Override
+    void setNeighbourMineCount(int index, int count) {
+        throw new UnsupportedOperationException("The mine layout of a shared board is fixed");
+    }
+
+    @Override
+    public void reset(int[] mineIndices) {
+        throw new UnsupportedOperationException("A shared board cannot be reset");
+    }
+
+    /**
+     * Seul l'algorithme {@link RevealAlgorithm#QUEUE} est disponible sur une grille partagée.
+     */
+    @Override
+    public void setRevealAlgorithm(RevealAlgorithm revealAlgorithm) {
+        if (revealAlgorithm != RevealAlgorithm.QUEUE) {
+            throw new UnsupportedOperationException("Only the queue algorithm supports concurrent reveals");
+        }
+    }
+
+    @Override
+    public boolean isOpened(int index) {
+        return ((byte) CELLS.getAcquire(cells, index) & OPENED) != 0;
+    }
+
+    @Override
+    public boolean hasFlag(int index) {
+        return ((byte) CELLS.getAcquire(cells, index) & FLAG) != 0;
+    }
+
+    @Override
+    public int getOpenedCount() {
+        return (int) openedCount.sum();
+    }
+
+    @Override
+    public int getFlagCount() {
+        return (int) flagCount.sum();
+    }
+
+    @Override
+    public int getCorrectFlagCount() {
+        return (int) correctFlagCount.sum();
+    }
+
+    @Override
+    public int getSafeCellsRemaining() {
+        return (int) (cells.length - getMineCount() - (openedCount.sum() - openedMineCount.sum()));
+    }
+
+    @Override
+    public int getRemainingMineCount() {
+        return getMineCount() - getFlagCount();
+    }
+}
@@ -71,12 +71,15 @@ public class Coordinate {
     /**
      * Calcule un code de hachage pour cette coordonnée.
      * Le code de hachage est utilisé dans des structures de données comme les HashMap.
+     * La valeur x est multipliée par une grande constante impaire puis les bits sont mélangés,
+     * pour éviter les collisions de {@code 31 * x + y} dès que la grille dépasse 31 cases de haut.
      *
      * @return Le code de hachage pour cette coordonnée.
      */
     @Override
     public int hashCode() {
-        return 31 * x + y; // Calcul du code de hachage basé sur x et y
+        int hash = x * 0x9E3779B9 + y; // Combinaison de x et y
+        return hash ^ (hash >>> 16); // Mélange des bits de poids fort vers les bits de poids faible
     }
 
     /**
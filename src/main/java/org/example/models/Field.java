@@ -2,39 +2,54 @@ package org.example.models;
 
 /**
  * Représente un champ de la grille du jeu de démineur.
- * Chaque champ a une coordonnée, une mine potentielle, un état d'ouverture,
- * un compte de mines voisines et un état de drapeau.
+ * Un champ est une vue légère sur une case d'un {@link Board} : il ne stocke que
+ * la grille et l'indice de la case, et lit ou modifie directement l'état compacté
+ * de la grille (mine, ouverture, drapeau et compte de mines voisines).
  */
 public class Field {
 
-    // Coordonnée du champ dans la grille
-    private Coordinate coordinate;
+    // Grille à laquelle appartient ce champ
+    private final Board board;
 
-    // Indique si ce champ contient une mine
-    private boolean hasMine;
+    // Indice de la case dans la grille (y * largeur + x)
+    private final int index;
 
-    // Indique si ce champ est ouvert ou non
-    private boolean isOpened;
+    /**
+     * Constructeur pour créer une vue sur une case de la grille.
+     *
+     * @param board La grille contenant la case.
+     * @param index L'indice de la case dans la grille.
+     */
+    Field(Board board, int index) {
+        this.board = board;
+        this.index = index;
+    }
 
-    // Compte du nombre de mines voisines
-    private int neighbourMineCount;
+    /**
+     * Récupère l'indice de la case dans la grille.
+     *
+     * @return L'indice {@code y * largeur + x} de la case.
+     */
+    public int getIndex() {
+        return index;
+    }
 
-    // Indique si un drapeau est posé sur ce champ
-    private boolean hasFlag;
+    /**
+     * Récupère la position horizontale du champ, sans créer de coordonnée.
+     *
+     * @return La coordonnée x du champ.
+     */
+    public int getX() {
+        return board.xOf(index);
+    }
 
     /**
-     * Constructeur pour initialiser un champ avec une coordonnée.
-     * Par défaut, le champ ne contient pas de mine, n'est pas ouvert,
-     * n'a pas de drapeau et n'a pas de mines voisines.
+     * Récupère la position verticale du champ, sans créer de coordonnée.
      *
-     * @param coord La coordonnée du champ.
+     * @return La coordonnée y du champ.
      */
-    public Field(Coordinate coord) {
-        this.coordinate = coord;
-        this.hasMine = false;
-        this.isOpened = false;
-        this.neighbourMineCount = 0;
-        this.hasFlag = false;
+    public int getY() {
+        return board.yOf(index);
     }
 
     /**
@@ -43,7 +58,7 @@ public class Field {
      * @return La coordonnée du champ.
      */
     public Coordinate getCoordinate() {
-        return coordinate;
+        return new Coordinate(board.xOf(index), board.yOf(index));
     }
 
     /**
@@ -52,7 +67,7 @@ public class Field {
      * @return true si un drapeau est posé, false sinon.
      */
     public boolean hasFlag() {
-        return hasFlag;
+        return board.hasFlag(index);
     }
 
     /**
@@ -61,7 +76,7 @@ public class Field {
      * @param flag true si un drapeau doit être posé, false sinon.
      */
     public void setHasFlag(boolean flag) {
-        this.hasFlag = flag;
+        board.setFlag(index, flag);
     }
 
     /**
@@ -70,16 +85,17 @@ public class Field {
      * @return true si le champ contient une mine, false sinon.
      */
     public boolean hasMine() {
-        return hasMine;
+        return board.hasMine(index);
     }
 
     /**
      * Modifie l'état de la mine sur ce champ.
+     * Les comptes de mines voisines des cases adjacentes sont mis à jour.
      *
      * @param mine true si une mine doit être posée, false sinon.
      */
     public void setHasMine(boolean mine) {
-        this.hasMine = mine;
+        board.setMine(index, mine);
     }
 
     /**
@@ -88,7 +104,7 @@ public class Field {
      * @return true si le champ est ouvert, false sinon.
      */
     public boolean isOpened() {
-        return isOpened;
+        return board.isOpened(index);
     }
 
     /**
@@ -97,7 +113,7 @@ public class Field {
      * @param opened true si le champ doit être ouvert, false sinon.
      */
     public void setOpened(boolean opened) {
-        this.isOpened = opened;
+        board.setOpened(index, opened);
     }
 
     /**
@@ -106,20 +122,50 @@ public class Field {
      * @return Le nombre de mines voisines.
      */
     public int getNeighbourMineCount() {
-        return neighbourMineCount;
+        return board.getNeighbourMineCount(index);
     }
 
     /**
      * Modifie le nombre de mines voisines de ce champ.
-     * Si la valeur est inférieure à 0, une exception est lancée.
+     * Si la valeur est inférieure à 0 ou supérieure au nombre maximal de voisines de la grille
+     * (8 sur la grille classique), une exception est lancée.
      *
      * @param count Le nouveau nombre de mines voisines.
-     * @throws IllegalArgumentException Si le nombre de mines voisines est inférieur à 0.
+     * @throws IllegalArgumentException Si le nombre de mines voisines est hors de [0, {@link Topology#getMaxDegree()}].
      */
     public void setNeighbourMineCount(int count) {
         if (count < 0) {
             throw new IllegalArgumentException("Count cannot be negative");
         }
-        this.neighbourMineCount = count;
+        int maxDegree = board.getTopology().getMaxDegree();
+        if (count > maxDegree) {
+            throw new IllegalArgumentException("Count cannot exceed " + maxDegree);
+        }
+        board.setNeighbourMineCount(index, count);
+    }
+
+    /**
+     * Vérifie si ce champ est égal à un autre.
+     * Deux champs sont égaux s'ils désignent la même case de la même grille.
+     *
+     * @param other L'autre objet à comparer.
+     * @return true si les champs désignent la même case, false sinon.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        Field that = (Field) other;
+        return board == that.board && index == that.index;
+    }
+
+    /**
+     * Calcule un code de hachage pour ce champ, basé sur l'indice de la case.
+     *
+     * @return Le code de hachage du champ.
+     */
+    @Override
+    public int hashCode() {
+        return index;
     }
 }
@@ -0,0 +1,58 @@
+package org.example.models;
+
+import org.example.metrics.Metrics;
+
+import java.util.SplittableRandom;
+
+/**
+ * Générateur de mines utilisant l'algorithme d'échantillonnage de Floyd.
+ * Chaque tirage est accepté du premier coup : le nombre de tirages est égal au nombre de mines,
+ * même sur une grille presque entièrement minée, contrairement au tirage avec rejet.
+ * Les rangs tirés sont marqués dans un ensemble de bits couvrant toutes les cases disponibles,
+ * qui est ensuite parcouru mot par mot : le coût total est en O(nombre de mines + nombre de cases / 64).
+ */
+public class FloydMineLayoutGenerator implements MineLayoutGenerator {
+
+    static final FloydMineLayoutGenerator INSTANCE = new FloydMineLayoutGenerator();
+
+    @Override
+    public int[] generate(int width, int height, int mineCount, long seed, int[] excluded) {
+        int available = Math.multiplyExact(width, height) - excluded.length;
+        if (mineCount < 0 || mineCount > available) {
+            throw new IllegalArgumentException("Cannot place " + mineCount + " mines on " + available + " free cells");
+        }
+
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+
+        // Tirage de mineCount rangs distincts parmi les cases disponibles
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] chosen = new long[(available + 63) >>> 6];
+        for (int j = available - mineCount; j < available; j++) {
+            int t = random.nextInt(j + 1);
+            if ((chosen[t >>> 6] & (1L << t)) != 0) {
+                t = j;
+            }
+            chosen[t >>> 6] |= 1L << t;
+        }
+
+        // Conversion des rangs en indices de cases, dans l'ordre croissant, en sautant les cases exclues
+        int[] mines = new int[mineCount];
+        int count = 0;
+        int skipped = 0;
+        for (int word = 0; word < chosen.length; word++) {
+            long bits = chosen[word];
+            while (bits != 0) {
+                int rank = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                while (skipped < excluded.length && excluded[skipped] <= rank + skipped) {
+                    skipped++;
+                }
+                mines[count++] = rank + skipped;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.MINE_LAYOUT.recordSince(start);
+        }
+        return mines;
+    }
+}
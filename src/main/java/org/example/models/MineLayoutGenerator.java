@@ -0,0 +1,92 @@
+package org.example.models;
+
+/**
+ * Générateur de dispositions de mines.
+ * Une disposition est un tableau trié d'indices de cases ({@code y * width + x}) contenant une mine.
+ * Pour une même graine et les mêmes paramètres, un générateur produit toujours la même disposition,
+ * ce qui permet de rejouer une partie à partir de sa graine.
+ */
+public interface MineLayoutGenerator {
+
+    /**
+     * Génère une disposition de mines en évitant les cases exclues.
+     *
+     * @param width     La largeur de la grille.
+     * @param height    La hauteur de la grille.
+     * @param mineCount Le nombre exact de mines à placer.
+     * @param seed      La graine du générateur pseudo-aléatoire.
+     * @param excluded  Les indices, triés et sans doublon, des cases qui ne doivent pas recevoir de mine.
+     * @return Les indices triés des cases minées.
+     * @throws IllegalArgumentException Si le nombre de mines dépasse le nombre de cases disponibles.
+     */
+    int[] generate(int width, int height, int mineCount, long seed, int[] excluded);
+
+    /**
+     * Génère une disposition de mines sur toute la grille.
+     *
+     * @param width     La largeur de la grille.
+     * @param height    La hauteur de la grille.
+     * @param mineCount Le nombre exact de mines à placer.
+     * @param seed      La graine du générateur pseudo-aléatoire.
+     * @return Les indices triés des cases minées.
+     */
+    default int[] generate(int width, int height, int mineCount, long seed) {
+        return generate(width, height, mineCount, seed, new int[0]);
+    }
+
+    /**
+     * Génère une disposition de mines pour un niveau donné.
+     *
+     * @param level Le niveau fixant les dimensions et le nombre de mines.
+     * @param seed  La graine du générateur pseudo-aléatoire.
+     * @return Les indices triés des cases minées.
+     */
+    default int[] generate(Level level, long seed) {
+        return generate(level.getWidth(), level.getHeight(), level.getMineCount(), seed);
+    }
+
+    /**
+     * Génère une disposition de mines garantissant un premier clic sans danger.
+     * La case cliquée et ses voisines sont exclues ; si la grille est trop dense pour cela,
+     * seule la case cliquée est exclue.
+     *
+     * @param width     La largeur de la grille.
+     * @param height    La hauteur de la grille.
+     * @param mineCount Le nombre exact de mines à placer.
+     * @param seed      La graine du générateur pseudo-aléatoire.
+     * @param safeX     La position horizontale du premier clic.
+     * @param safeY     La position verticale du premier clic.
+     * @return Les indices triés des cases minées.
+     * @throws IllegalArgumentException Si la case cliquée est hors de la grille.
+     */
+    default int[] generateSafe(int width, int height, int mineCount, long seed, int safeX, int safeY) {
+        if (safeX < 0 || safeX >= width || safeY < 0 || safeY >= height) {
+            throw new IllegalArgumentException("First click (" + safeX + ", " + safeY + ") is outside the "
+                    + width + "x" + height + " grid");
+        }
+        int minX = Math.max(0, safeX - 1);
+        int maxX = Math.min(width - 1, safeX + 1);
+        int minY = Math.max(0, safeY - 1);
+        int maxY = Math.min(height - 1, safeY + 1);
+        int[] neighbourhood = new int[(maxX - minX + 1) * (maxY - minY + 1)];
+        int count = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                neighbourhood[count++] = y * width + x;
+            }
+        }
+        if ((long) width * height - neighbourhood.length >= mineCount) {
+            return generate(width, height, mineCount, seed, neighbourhood);
+        }
+        return generate(width, height, mineCount, seed, new int[]{safeY * width + safeX});
+    }
+
+    /**
+     * Retourne le générateur par défaut, basé sur l'algorithme d'échantillonnage de Floyd.
+     *
+     * @return Un générateur en O(nombre de mines + nombre de cases / 64).
+     */
+    static MineLayoutGenerator floyd() {
+        return FloydMineLayoutGenerator.INSTANCE;
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.models;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static org.example.models.Board.COUNT_BITS;
+import static org.example.models.Board.COUNT_MASK;
+import static org.example.models.Board.MINE;
+
+/**
+ * Calcul en masse du nombre de mines voisines de chaque case d'une grille compactée.
+ * Chaque ligne est traitée par une fenêtre glissante 3x3 : les sommes verticales de trois lignes
+ * sont calculées une fois par colonne, puis additionnées horizontalement par glissement,
+ * soit un coût constant par case sans allocation ni recherche dans une table.
+ * Les grandes grilles sont découpées en bandes de lignes traitées en parallèle.
+ * Les grilles d'une autre {@link Topology} sont comptées en parcourant leur table de voisinage.
+ */
+final class NeighbourCounter {
+
+    // Nombre de cases à partir duquel le calcul est réparti sur le ForkJoinPool commun
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    // Nombre minimal de cases par bande lors du découpage parallèle
+    private static final int MIN_BAND_CELLS = 1 << 15;
+
+    private NeighbourCounter() {
+    }
+
+    /**
+     * Écrit le nombre de mines voisines dans chaque case sans mine.
+     *
+     * @param cells  L'état compacté des cases, indexé par {@code y * width + x}.
+     * @param width  La largeur de la grille.
+     * @param height La hauteur de la grille.
+     */
+    static void countAll(byte[] cells, int width, int height) {
+        if (cells.length < PARALLEL_THRESHOLD) {
+            countBand(cells, width, height, 0, height);
+        } else {
+            int minRows = Math.max(1, MIN_BAND_CELLS / width);
+            ForkJoinPool.commonPool().invoke(new BandTask(cells, width, height, 0, height, minRows));
+        }
+        assert matchesReference(cells, width, height) : "Bulk neighbour counts differ from the per-cell computation";
+    }
+
+    /**
+     * Traite les lignes {@code [fromRow, toRow)}. Seuls les bits de compte de ces lignes sont écrits ;
+     * les lignes voisines ne sont lues que pour leur bit de mine, qui n'est jamais modifié ici,
+     * ce qui permet de traiter des bandes adjacentes en parallèle.
+     */
+    static void countBand(byte[] cells, int width, int height, int fromRow, int toRow) {
+        // Sommes verticales par colonne, avec une colonne vide de chaque côté
+        int[] columns = new int[width + 2];
+        for (int y = fromRow; y < toRow; y++) {
+            int row = y * width;
+            int above = y > 0 ? row - width : -1;
+            int below = y < height - 1 ? row + width : -1;
+            for (int x = 0; x < width; x++) {
+                int sum = (cells[row + x] & MINE) >>> 4;
+                if (above >= 0) {
+                    sum += (cells[above + x] & MINE) >>> 4;
+                }
+                if (below >= 0) {
+                    sum += (cells[below + x] & MINE) >>> 4;
+                }
+                columns[x + 1] = sum;
+            }
+
+            int window = columns[0] + columns[1];
+            for (int x = 0; x < width; x++) {
+                window += columns[x + 2];
+                int cell = cells[row + x];
+                if ((cell & MINE) == 0) {
+                    cells[row + x] = (byte) ((cell & ~COUNT_MASK) | window);
+                }
+                window -= columns[x];
+            }
+        }
+    }
+
+    /**
+     * Écrit le nombre de mines voisines dans chaque case sans mine, d'après une table de voisinage.
+     *
+     * @param cells      L'état compacté des cases.
+     * @param offsets    Les bornes du voisinage de chaque case dans {@code neighbours}.
+     * @param neighbours Les indices des voisines de toutes les cases, mis bout à bout.
+     */
+    static void countAll(byte[] cells, int[] offsets, int[] neighbours) {
+        for (int index = 0; index < cells.length; index++) {
+            int cell = cells[index];
+            if ((cell & MINE) == 0) {
+                int count = countAt(cells, offsets, neighbours, index);
+                cells[index] = (byte) ((cell & ~COUNT_BITS) | Board.encodeCount(count));
+            }
+        }
+    }
+
+    /**
+     * Compte les mines voisines d'une seule case, d'après une table de voisinage.
+     *
+     * @return Le nombre de mines parmi les voisines de la case.
+     */
+    static int countAt(byte[] cells, int[] offsets, int[] neighbours, int index) {
+        int count = 0;
+        for (int k = offsets[index], end = offsets[index + 1]; k < end; k++) {
+            count += (cells[neighbours[k]] & MINE) >>> 4;
+        }
+        return count;
+    }
+
+    /**
+     * Compte les mines voisines d'une seule case, case par case.
+     *
+     * @return Le nombre de mines parmi les 8 voisines de (x, y).
+     */
+    static int countAt(byte[] cells, int width, int height, int x, int y) {
+        int count = 0;
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                if ((nx != x || ny != y) && (cells[ny * width + nx] & MINE) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Vérifie les comptes de toutes les cases sans mine contre le calcul case par case.
+     * Utilisé comme assertion (option {@code -ea}) après chaque calcul en masse.
+     *
+     * @return true si tous les comptes sont corrects.
+     */
+    static boolean matchesReference(byte[] cells, int width, int height) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = cells[y * width + x];
+                if ((cell & MINE) == 0 && (cell & COUNT_MASK) != countAt(cells, width, height, x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Découpe récursivement les lignes en bandes jusqu'à la taille minimale.
+     */
+    private static final class BandTask extends RecursiveAction {
+        private final byte[] cells;
+        private final int width;
+        private final int height;
+        private final int fromRow;
+        private final int toRow;
+        private final int minRows;
+
+        BandTask(byte[] cells, int width, int height, int fromRow, int toRow, int minRows) {
+            this.cells = cells;
+            this.width = width;
+            this.height = height;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.minRows = minRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= minRows) {
+                countBand(cells, width, height, fromRow, toRow);
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new BandTask(cells, width, height, fromRow, middle, minRows),
+                    new BandTask(cells, width, height, middle, toRow, minRows));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.models;
+
+/**
+ * Utilitaire de coordonnées compactées dans un {@code long} :
+ * x occupe les 32 bits de poids fort et y les 32 bits de poids faible.
+ * Les coordonnées négatives sont prises en charge, ce qui convient aussi aux grilles sans bornes.
+ */
+public final class PackedCoordinate {
+
+    private PackedCoordinate() {
+    }
+
+    /**
+     * Compacte une coordonnée.
+     *
+     * @param x La coordonnée x.
+     * @param y La coordonnée y.
+     * @return La coordonnée compactée.
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param packed Une coordonnée compactée.
+     * @return La coordonnée x.
+     */
+    public static int x(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * @param packed Une coordonnée compactée.
+     * @return La coordonnée y.
+     */
+    public static int y(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * @param coordinate Une coordonnée.
+     * @return La coordonnée compactée.
+     */
+    public static long pack(Coordinate coordinate) {
+        return pack(coordinate.getX(), coordinate.getY());
+    }
+
+    /**
+     * @param packed Une coordonnée compactée.
+     * @return Un nouvel objet {@link Coordinate}.
+     */
+    public static Coordinate toCoordinate(long packed) {
+        return new Coordinate(x(packed), y(packed));
+    }
+}
@@ -2,6 +2,7 @@ package org.example.models;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.IntConsumer;
 
 /**
  * This class represents the result of a field reveal operation on the board.
@@ -20,6 +21,8 @@ public class RevealFieldsResult {
 
     private Collection<Field> revealedFields;  // Collection of fields that were revealed.
     private RevealFieldState state;            // State of the reveal operation.
+    private int[] revealedIndices;             // Cell indices of the revealed fields, computed on demand.
+    private int mineIndex = -1;                // Cell index of the mine that was hit, or -1.
 
     /**
      * Default constructor that initializes the result with no revealed fields
@@ -37,7 +40,7 @@ public class RevealFieldsResult {
      * @param fields A collection of fields that were revealed.
      */
     public RevealFieldsResult(Collection<Field> fields) {
-        this.revealedFields = Collections.unmodifiableCollection(fields);  // Make collection unmodifiable.
+        this.revealedFields = readOnly(fields);  // Make collection unmodifiable.
         this.state = determineState(fields);  // Determine the state based on the fields.
     }
 
@@ -49,10 +52,22 @@ public class RevealFieldsResult {
      * @param state The state of the reveal operation.
      */
     public RevealFieldsResult(Collection<Field> fields, RevealFieldState state) {
-        this.revealedFields = Collections.unmodifiableCollection(fields);  // Make collection unmodifiable.
+        this.revealedFields = readOnly(fields);  // Make collection unmodifiable.
         this.state = state;  // Set the provided state.
     }
 
+    /**
+     * Constructor used by board operations that know which mined cell was opened.
+     *
+     * @param fields    A collection of fields that were revealed.
+     * @param state     The state of the reveal operation.
+     * @param mineIndex The cell index of the mine that was hit.
+     */
+    RevealFieldsResult(Collection<Field> fields, RevealFieldState state, int mineIndex) {
+        this(fields, state);
+        this.mineIndex = mineIndex;
+    }
+
     /**
      * Returns the collection of revealed fields.
      *
@@ -62,6 +77,59 @@ public class RevealFieldsResult {
         return revealedFields;
     }
 
+    /**
+     * Returns the number of revealed fields.
+     *
+     * @return The number of revealed fields.
+     */
+    public int getRevealedCount() {
+        return revealedFields.size();
+    }
+
+    /**
+     * Returns the cell index ({@code y * width + x}) of the revealed field at the given position,
+     * without creating any {@link Field} view when the result comes from a board cascade.
+     *
+     * @param position The position of the field, between 0 and {@link #getRevealedCount()} exclusive.
+     * @return The cell index of the revealed field.
+     */
+    public int getRevealedIndex(int position) {
+        if (revealedFields instanceof RevealedFields indexed) {
+            return indexed.indexAt(position);
+        }
+        return indices()[position];
+    }
+
+    /**
+     * Streams the cell indices of the revealed fields, in reveal order.
+     *
+     * @param action The action invoked with each cell index.
+     */
+    public void forEachRevealedIndex(IntConsumer action) {
+        int count = getRevealedCount();
+        for (int position = 0; position < count; position++) {
+            action.accept(getRevealedIndex(position));
+        }
+    }
+
+    /**
+     * Returns the cell index ({@code y * width + x}) of the mined cell that was opened,
+     * when the state is {@link RevealFieldState#FOUND_MINE}.
+     *
+     * @return The cell index of the mine that was hit, or -1 if no mine was hit.
+     */
+    public int getMineIndex() {
+        if (mineIndex < 0 && state == RevealFieldState.FOUND_MINE) {
+            for (Field field : revealedFields) {
+                if (field.hasMine()) {
+                    mineIndex = field.getIndex();
+                    break;
+                }
+            }
+        }
+        return mineIndex;
+    }
+
     /**
      * Returns the state of the reveal operation.
      *
@@ -71,6 +139,29 @@ public class RevealFieldsResult {
         return state;
     }
 
+    /**
+     * Wraps the given fields in a read-only collection. Board cascades already produce
+     * a read-only, index-backed collection, which is kept as is.
+     */
+    private static Collection<Field> readOnly(Collection<Field> fields) {
+        return fields instanceof RevealedFields ? fields : Collections.unmodifiableCollection(fields);
+    }
+
+    /**
+     * Computes the cell indices of a result built from arbitrary fields.
+     */
+    private int[] indices() {
+        if (revealedIndices == null) {
+            int[] computed = new int[revealedFields.size()];
+            int position = 0;
+            for (Field field : revealedFields) {
+                computed[position++] = field.getIndex();
+            }
+            revealedIndices = computed;
+        }
+        return revealedIndices;
+    }
+
     /**
      * Determines the state of the reveal operation based on the provided collection
      * of fields. If any of the fields contains a mine, the state will be FOUND_MINE.
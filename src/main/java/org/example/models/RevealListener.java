@@ -0,0 +1,17 @@
+package org.example.models;
+
+/**
+ * Observateur appelé pour chaque case ouverte, au moment même où la cascade l'ouvre.
+ * Permet de diffuser les cases modifiées sans construire de collection de résultats.
+ */
+@FunctionalInterface
+public interface RevealListener {
+
+    /**
+     * Appelée lorsqu'une case vient d'être ouverte.
+     * La grille peut être interrogée sur cette case, mais ne doit pas être modifiée pendant l'appel.
+     *
+     * @param index L'indice {@code y * width + x} de la case ouverte.
+     */
+    void fieldRevealed(int index);
+}
@@ -0,0 +1,61 @@
+package org.example.models;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Collection en lecture seule des champs ouverts par une opération de révélation.
+ * Seuls les indices des cases sont conservés ; les vues {@link Field} sont créées
+ * à la demande pendant le parcours.
+ */
+class RevealedFields extends AbstractCollection<Field> {
+
+    private final Board board;
+    private final int[] indices;
+    private final int size;
+
+    /**
+     * @param board   La grille contenant les cases.
+     * @param indices Les indices des cases ouvertes.
+     * @param size    Le nombre d'indices valides au début du tableau.
+     */
+    RevealedFields(Board board, int[] indices, int size) {
+        this.board = board;
+        this.indices = indices;
+        this.size = size;
+    }
+
+    /**
+     * @param position Le rang de la case, entre 0 et {@link #size()} exclu.
+     * @return L'indice de la case ouverte à ce rang.
+     */
+    int indexAt(int position) {
+        return indices[position];
+    }
+
+    @Override
+    public Iterator<Field> iterator() {
+        return new Iterator<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < size;
+            }
+
+            @Override
+            public Field next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new Field(board, indices[position++]);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,331 @@
+package org.example.models;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Forme d'une grille : ses dimensions et le voisinage de chaque case.
+ * <p>
+ * Le voisinage est précalculé une fois par forme dans une table d'indices contiguë (format CSR) :
+ * les voisines de la case {@code i} sont rangées dans {@code neighbours[offsets[i]]} à
+ * {@code neighbours[offsets[i + 1] - 1]}, par indices croissants. Les comptes de mines, les cascades
+ * et les solveurs parcourent ainsi un simple tableau d'entiers, sans test de bord ni allocation,
+ * quelle que soit la forme de la grille.
+ * <p>
+ * Les cases sont indexées comme celles de {@link Board}, par {@code y * width + x} ; les couches
+ * d'une grille en trois dimensions sont empilées verticalement, la case (x, y, z) ayant l'indice
+ * {@code (z * height + y) * width + x}. Les formes sont immuables. Tant qu'une grille utilise une forme non classique,
+ * les fabriques renvoient la même instance, et donc la même table, pour des dimensions identiques ;
+ * la table est libérée avec la dernière grille qui l'utilise.
+ * <p>
+ * La grille classique n'a jamais de table : son voisinage est toujours calculé à partir des coordonnées,
+ * une table coûtant environ 36 octets par case pour un gain nul sur ce voisinage.
+ */
+public final class Topology {
+
+    /**
+     * Famille de voisinage.
+     */
+    public enum Kind {
+        SQUARE,  // Grille classique, 8 voisines au plus.
+        TORUS,   // Grille dont les bords opposés se rejoignent, 8 voisines.
+        HEX,     // Grille hexagonale, lignes impaires décalées d'une demi-case vers la droite, 6 voisines au plus.
+        CUBE     // Grille en trois dimensions, 26 voisines au plus.
+    }
+
+    /**
+     * Nombre maximal de voisines d'une case, toutes formes confondues.
+     */
+    public static final int MAX_DEGREE = 26;
+
+    // Nombre de formes référencées pour être partagées entre grilles
+    private static final int CACHE_SIZE = 16;
+
+    // Références faibles : le cache ne retient pas une table dont plus aucune grille ne se sert
+    private static final Map<Shape, WeakReference<Topology>> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Shape, WeakReference<Topology>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Clé du cache des formes.
+     */
+    private record Shape(Kind kind, int width, int height, int depth) {
+    }
+
+    /**
+     * Table de voisinage, publiée d'un bloc une fois construite.
+     */
+    private record Table(int[] offsets, int[] neighbours) {
+    }
+
+    private final Kind kind;
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final int cellCount;
+    private volatile Table table;
+
+    private Topology(Kind kind, int width, int height, int depth) {
+        if (width <= 0 || height <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Topology dimensions must be positive");
+        }
+        this.kind = kind;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.cellCount = Math.multiplyExact(Math.multiplyExact(width, height), depth);
+    }
+
+    /**
+     * @return La grille classique de dimensions données, où chaque case a pour voisines les 8 cases qui l'entourent.
+     */
+    public static Topology square(int width, int height) {
+        // Sans table à partager, la grille classique n'a pas besoin du cache ni de son verrou
+        return new Topology(Kind.SQUARE, width, height, 1);
+    }
+
+    /**
+     * @return La grille de dimensions données dont les bords opposés se rejoignent :
+     * chaque case a 8 voisines, moins sur une grille de moins de 3 cases de large ou de haut.
+     */
+    public static Topology torus(int width, int height) {
+        return shared(new Topology(Kind.TORUS, width, height, 1));
+    }
+
+    /**
+     * @return La grille hexagonale de dimensions données, dont les lignes impaires sont décalées
+     * d'une demi-case vers la droite : chaque case a pour voisines les 2 cases de sa ligne et 2 cases
+     * de chacune des lignes adjacentes.
+     */
+    public static Topology hex(int width, int height) {
+        return shared(new Topology(Kind.HEX, width, height, 1));
+    }
+
+    /**
+     * @return La grille en trois dimensions de dimensions données, où chaque case a pour voisines
+     * les 26 cases du cube 3x3x3 qui l'entoure.
+     */
+    public static Topology cube(int width, int height, int depth) {
+        return shared(new Topology(Kind.CUBE, width, height, depth));
+    }
+
+    private static Topology shared(Topology topology) {
+        Shape shape = new Shape(topology.kind, topology.width, topology.height, topology.depth);
+        synchronized (CACHE) {
+            WeakReference<Topology> reference = CACHE.get(shape);
+            Topology cached = reference == null ? null : reference.get();
+            if (cached != null) {
+                return cached;
+            }
+            CACHE.put(shape, new WeakReference<>(topology));
+            return topology;
+        }
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return La hauteur d'une couche.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Le nombre de couches, 1 pour une grille plane.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * @return Une borne du nombre de voisines d'une case, suffisante pour dimensionner un tampon de voisinage.
+     */
+    public int getMaxDegree() {
+        return switch (kind) {
+            case SQUARE, TORUS -> 8;
+            case HEX -> 6;
+            case CUBE -> MAX_DEGREE;
+        };
+    }
+
+    /**
+     * @return Le nombre de voisines de la case d'indice donné.
+     */
+    public int getDegree(int index) {
+        if (kind == Kind.SQUARE) {
+            return collect(index, new int[getMaxDegree()]);
+        }
+        int[] offsets = table().offsets;
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Copie dans {@code out} les indices des voisines d'une case, par indices croissants.
+     *
+     * @param index L'indice de la case.
+     * @param out   Le tampon de destination, d'au moins {@link #getMaxDegree()} cases.
+     * @return Le nombre de voisines.
+     */
+    public int getNeighbours(int index, int[] out) {
+        if (kind == Kind.SQUARE) {
+            return collect(index, out);
+        }
+        Table current = table();
+        int from = current.offsets[index];
+        int count = current.offsets[index + 1] - from;
+        System.arraycopy(current.neighbours, from, out, 0, count);
+        return count;
+    }
+
+    /**
+     * @return Les bornes des voisinages dans {@link #neighbours()}, {@code getCellCount() + 1} entrées.
+     */
+    int[] offsets() {
+        return table().offsets;
+    }
+
+    /**
+     * @return Les indices des voisines de toutes les cases, mis bout à bout.
+     */
+    int[] neighbours() {
+        return table().neighbours;
+    }
+
+    private Table table() {
+        Table current = table;
+        if (current == null) {
+            synchronized (this) {
+                current = table;
+                if (current == null) {
+                    current = buildTable();
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Construit la table en deux passes : les degrés d'abord, pour allouer la table à sa taille exacte.
+     */
+    private Table buildTable() {
+        int[] buffer = new int[getMaxDegree()];
+        int[] offsets = new int[cellCount + 1];
+        for (int index = 0; index < cellCount; index++) {
+            offsets[index + 1] = Math.addExact(offsets[index], collect(index, buffer));
+        }
+        int[] neighbours = new int[offsets[cellCount]];
+        for (int index = 0; index < cellCount; index++) {
+            collect(index, buffer);
+            System.arraycopy(buffer, 0, neighbours, offsets[index], offsets[index + 1] - offsets[index]);
+        }
+        return new Table(offsets, neighbours);
+    }
+
+    /**
+     * Calcule les voisines d'une case à partir de ses coordonnées.
+     *
+     * @return Le nombre de voisines rangées dans {@code out}.
+     */
+    private int collect(int index, int[] out) {
+        int x = index % width;
+        int y = index / width % height;
+        int z = index / (width * height);
+        int count = 0;
+        switch (kind) {
+            case SQUARE -> {
+                for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                    for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                        if (nx != x || ny != y) {
+                            out[count++] = ny * width + nx;
+                        }
+                    }
+                }
+            }
+            case TORUS -> {
+                // Sur une grille étroite, plusieurs décalages mènent à la même case : elle n'est comptée qu'une fois
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int neighbour = Math.floorMod(y + dy, height) * width + Math.floorMod(x + dx, width);
+                        if (neighbour != index && !contains(out, count, neighbour)) {
+                            out[count++] = neighbour;
+                        }
+                    }
+                }
+                Arrays.sort(out, 0, count);
+            }
+            case HEX -> {
+                // Sur une ligne paire, les voisines des lignes adjacentes sont décalées vers la gauche
+                int shift = (y & 1) == 0 ? -1 : 0;
+                for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                    int from = ny == y ? x - 1 : x + shift;
+                    int to = ny == y ? x + 1 : x + shift + 1;
+                    for (int nx = Math.max(0, from); nx <= Math.min(width - 1, to); nx++) {
+                        if (nx != x || ny != y) {
+                            out[count++] = ny * width + nx;
+                        }
+                    }
+                }
+            }
+            case CUBE -> {
+                for (int nz = Math.max(0, z - 1); nz <= Math.min(depth - 1, z + 1); nz++) {
+                    for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                        for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                            if (nx != x || ny != y || nz != z) {
+                                out[count++] = (nz * height + ny) * width + nx;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Topology other)) {
+            return false;
+        }
+        return kind == other.kind && width == other.width && height == other.height && depth == other.depth;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, width, height, depth);
+    }
+
+    @Override
+    public String toString() {
+        return kind + "[" + width + "x" + height + (kind == Kind.CUBE ? "x" + depth : "") + "]";
+    }
+}
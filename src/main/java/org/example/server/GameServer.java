@@ -0,0 +1,279 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.metrics.Metrics;
+import org.example.models.Level;
+import org.example.models.RevealFieldsResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serveur HTTP hébergeant des parties simultanées, à l'écoute de l'interface de bouclage uniquement.
+ * Chaque requête est traitée sur son propre thread virtuel.
+ * <p>
+ * Points d'accès (réponses JSON, identifiants en hexadécimal) :
+ * <ul>
+ *     <li>{@code POST /sessions?level=expert&seed=42} ou {@code ?width=&height=&mines=} : crée une session,
+ *     d'au plus {@value #MAX_DIMENSION} cases de côté et {@value #MAX_CELLS} cases ;</li>
+ *     <li>{@code GET /sessions/{id}} : état visible de la grille ;</li>
+ *     <li>{@code GET /sessions/{id}/view?since=} : état visible encodé en binaire pour un spectateur,
+ *     différentiels depuis le coup donné ou instantané (voir {@link org.example.storage.VisibleStateEncoder}) ;</li>
+ *     <li>{@code POST /sessions/{id}/reveal?x=&y=} : ouvre une case et retourne les cases ouvertes ;</li>
+ *     <li>{@code POST /sessions/{id}/flag?x=&y=} : pose ou retire un drapeau ;</li>
+ *     <li>{@code DELETE /sessions/{id}} : supprime la session ;</li>
+ *     <li>{@code GET /stats} : nombre de sessions actives, créées et retirées pour inactivité ;</li>
+ *     <li>{@code GET /metrics} : mesures des chemins critiques, si elles sont activées (voir {@link Metrics}).</li>
+ * </ul>
+ */
+public class GameServer implements AutoCloseable {
+
+    // Nombre de segments du registre des sessions
+    private static final int SHARD_COUNT = 64;
+
+    // Durée d'inactivité par défaut avant qu'une session ne soit retirée
+    private static final long DEFAULT_IDLE_MINUTES = 10;
+
+    // Dimensions maximales d'une grille demandée par un client : chaque session garde sa grille en mémoire
+    // et l'état visible est renvoyé en entier à chaque GET
+    static final int MAX_DIMENSION = 4096;
+    static final int MAX_CELLS = 1 << 20;
+
+    static {
+        // Les en-têtes et le corps des réponses sont écrits séparément : sans TCP_NODELAY, l'algorithme de Nagle
+        // combiné à l'acquittement différé du client ajoute environ 40 ms à chaque requête.
+        // La propriété n'est lue qu'au chargement de la configuration du serveur HTTP du JDK.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SessionRegistry registry;
+
+    /**
+     * Démarre un serveur sur le port donné de l'interface de bouclage.
+     *
+     * @param port        Le port d'écoute, ou 0 pour un port libre choisi par le système.
+     * @param idleTimeout La durée d'inactivité au-delà de laquelle une session est retirée.
+     * @param unit        L'unité de {@code idleTimeout}.
+     * @throws IOException Si le port ne peut pas être ouvert.
+     */
+    public GameServer(int port, long idleTimeout, TimeUnit unit) throws IOException {
+        this.registry = new SessionRegistry(SHARD_COUNT, idleTimeout, unit);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/sessions", this::handleSessions);
+        server.createContext("/stats", this::handleStats);
+        server.createContext("/metrics", exchange -> send(exchange, 200, Metrics.toJson()));
+        server.start();
+    }
+
+    /**
+     * @return Le port d'écoute effectif.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public SessionRegistry getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        registry.close();
+    }
+
+    private void handleSessions(HttpExchange exchange) throws IOException {
+        try {
+            URI uri = exchange.getRequestURI();
+            String[] path = uri.getPath().split("/");
+            Map<String, String> query = parseQuery(uri.getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            // path = ["", "sessions", id?, action?]
+            if (path.length == 2) {
+                if (!method.equals("POST")) {
+                    send(exchange, 405, error("method not allowed"));
+                    return;
+                }
+                createSession(exchange, query);
+                return;
+            }
+            if (path.length > 4) {
+                send(exchange, 404, error("not found"));
+                return;
+            }
+            GameSession session = registry.get(Long.parseUnsignedLong(path[2], 16));
+            if (session == null) {
+                send(exchange, 404, error("unknown session"));
+                return;
+            }
+            String action = path.length == 4 ? path[3] : "";
+            switch (method + " " + action) {
+                case "GET " -> send(exchange, 200, state(session));
+                case "GET view" -> {
+                    int since = query.containsKey("since") ? intParam(query, "since") : -1;
+                    sendBinary(exchange, session.visibleUpdates(since));
+                }
+                case "DELETE " -> {
+                    registry.remove(session.getId());
+                    send(exchange, 200, "{\"deleted\":true}");
+                }
+                case "POST reveal" -> {
+                    RevealFieldsResult result = session.reveal(intParam(query, "x"), intParam(query, "y"));
+                    send(exchange, 200, revealed(session, result));
+                }
+                case "POST flag" -> {
+                    boolean flagged = session.flag(intParam(query, "x"), intParam(query, "y"));
+                    send(exchange, 200, "{\"flagged\":" + flagged
+                            + ",\"remainingMines\":" + session.getRemainingMineCount() + "}");
+                }
+                default -> send(exchange, 405, error("method not allowed"));
+            }
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            send(exchange, 400, error(e.getMessage()));
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        send(exchange, 200, "{\"sessions\":" + registry.size() + ",\"created\":" + registry.getCreatedCount()
+                + ",\"evicted\":" + registry.getEvictedCount() + "}");
+    }
+
+    private void createSession(HttpExchange exchange, Map<String, String> query) throws IOException {
+        Level level = switch (query.getOrDefault("level", "")) {
+            case "beginner" -> Level.getBeginner();
+            case "intermediate" -> Level.getIntermediate();
+            case "expert" -> Level.getExpert();
+            case "" -> query.containsKey("width")
+                    ? new Level(intParam(query, "width"), intParam(query, "height"), intParam(query, "mines"))
+                    : Level.getBeginner();
+            default -> throw new IllegalArgumentException("unknown level");
+        };
+        if (level.getWidth() <= 0 || level.getHeight() <= 0 || level.getMineCount() < 0
+                || level.getMineCount() >= (long) level.getWidth() * level.getHeight()) {
+            throw new IllegalArgumentException("invalid level");
+        }
+        if (level.getWidth() > MAX_DIMENSION || level.getHeight() > MAX_DIMENSION
+                || (long) level.getWidth() * level.getHeight() > MAX_CELLS) {
+            throw new IllegalArgumentException("level too large: at most " + MAX_DIMENSION + " cells per side and "
+                    + MAX_CELLS + " cells");
+        }
+        long seed = query.containsKey("seed") ? Long.parseLong(query.get("seed")) : ThreadLocalRandom.current().nextLong();
+        GameSession session = registry.create(level, seed);
+        send(exchange, 201, "{\"id\":\"" + Long.toHexString(session.getId()) + "\",\"width\":" + level.getWidth()
+                + ",\"height\":" + level.getHeight() + ",\"mines\":" + level.getMineCount() + ",\"seed\":" + seed + "}");
+    }
+
+    private static String state(GameSession session) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":\"").append(Long.toHexString(session.getId()))
+                .append("\",\"status\":\"").append(session.getStatus())
+                .append("\",\"remainingMines\":").append(session.getRemainingMineCount())
+                .append(",\"rows\":[\"");
+        StringBuilder cells = new StringBuilder();
+        session.appendVisibleCells(cells);
+        for (int i = 0; i < cells.length(); i++) {
+            char c = cells.charAt(i);
+            if (c == '\n') {
+                json.append("\",\"");
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append("\"]}").toString();
+    }
+
+    private static String revealed(GameSession session, RevealFieldsResult result) {
+        int width = session.getLevel().getWidth();
+        int count = result.getRevealedCount();
+        int[] counts = session.neighbourMineCounts(result);
+        StringBuilder json = new StringBuilder(64 + count * 12);
+        json.append("{\"state\":\"").append(result.getState())
+                .append("\",\"status\":\"").append(session.getStatus())
+                .append("\",\"revealed\":[");
+        for (int i = 0; i < count; i++) {
+            int index = result.getRevealedIndex(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            // [x, y, nombre de mines voisines, ou -1 pour une mine]
+            json.append('[').append(index % width).append(',').append(index / width).append(',')
+                    .append(counts[i]).append(']');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static int intParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing parameter " + name);
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(pair.substring(0, separator), pair.substring(separator + 1));
+            }
+        }
+        return query;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + (message == null ? "bad request" : message.replace("\"", "'")) + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendBinary(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Démarre le serveur. Arguments : port (8080 par défaut) et durée d'inactivité en minutes.
+     *
+     * @param args Les arguments de la ligne de commande.
+     * @throws IOException Si le port ne peut pas être ouvert.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        long idleMinutes = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_IDLE_MINUTES;
+        GameServer server = new GameServer(port, idleMinutes, TimeUnit.MINUTES);
+        System.out.println("Serveur de démineur à l'écoute sur http://localhost:" + server.getPort());
+    }
+}
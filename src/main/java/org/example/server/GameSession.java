@@ -0,0 +1,257 @@
+package org.example.server;
+
+import org.example.models.Board;
+import org.example.models.Level;
+import org.example.models.MineLayoutGenerator;
+import org.example.models.RevealFieldsResult;
+import org.example.storage.VisibleStateEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Partie hébergée par le serveur. Les mines sont placées au premier clic, comme dans l'interface,
+ * à partir de la graine de la session. Les accès sont sérialisés par un verrou explicite plutôt que
+ * par {@code synchronized}, qui bloquerait le thread porteur des threads virtuels.
+ * <p>
+ * Chaque coup qui modifie la grille incrémente le numéro de coup de la session et produit un différentiel
+ * de l'état visible ({@link VisibleStateEncoder}), encodé une fois pour tous les spectateurs.
+ * Les derniers différentiels sont conservés pour les spectateurs en retard de quelques coups.
+ */
+public class GameSession {
+
+    // Nombre de différentiels conservés ; un spectateur plus en retard reçoit un instantané
+    private static final int RECENT_DELTAS = 64;
+
+    /**
+     * État d'avancement de la partie.
+     */
+    public enum Status {
+        PLAYING,
+        WON,
+        LOST
+    }
+
+    private final long id;
+    private final Level level;
+    private final long seed;
+    private final MineLayoutGenerator mineLayoutGenerator;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Board board;
+    private final VisibleStateEncoder visibleState;
+    private final ArrayDeque<byte[]> recentDeltas = new ArrayDeque<>();
+    private int moveCount;
+    private boolean minesPlaced;
+    private Status status = Status.PLAYING;
+    private volatile long lastAccessNanos;
+
+    GameSession(long id, Level level, long seed, MineLayoutGenerator mineLayoutGenerator) {
+        this.id = id;
+        this.level = level;
+        this.seed = seed;
+        this.mineLayoutGenerator = mineLayoutGenerator;
+        this.board = new Board(level.getWidth(), level.getHeight(), new int[0]);
+        this.visibleState = new VisibleStateEncoder(board);
+        touch();
+    }
+
+    /**
+     * Ouvre la case (x, y). Le premier clic place les mines en épargnant son voisinage ;
+     * les drapeaux déjà posés sont conservés.
+     *
+     * @return Le résultat du coup, vide si la partie est terminée.
+     */
+    public RevealFieldsResult reveal(int x, int y) {
+        lock.lock();
+        try {
+            touch();
+            if (status != Status.PLAYING || !board.contains(x, y)) {
+                return new RevealFieldsResult();
+            }
+            if (!minesPlaced) {
+                placeMines(x, y);
+            }
+            RevealFieldsResult result = board.revealFields(x, y);
+            if (result.getRevealedCount() > 0) {
+                visibleState.add(result);
+                recordMove();
+            }
+            if (result.getState() == RevealFieldsResult.RevealFieldState.FOUND_MINE) {
+                status = Status.LOST;
+            } else if (board.hasWon()) {
+                status = Status.WON;
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pose ou retire un drapeau sur la case (x, y).
+     *
+     * @return true si la case porte un drapeau après le coup.
+     */
+    public boolean flag(int x, int y) {
+        lock.lock();
+        try {
+            touch();
+            if (status == Status.PLAYING && board.contains(x, y)) {
+                int index = board.indexOf(x, y);
+                boolean flagged = board.hasFlag(index);
+                board.flagField(x, y);
+                if (board.hasFlag(index) != flagged) {
+                    visibleState.add(index);
+                    recordMove();
+                }
+            }
+            return board.contains(x, y) && board.hasFlag(board.indexOf(x, y));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lit en une fois le nombre de mines voisines des cases ouvertes par un coup.
+     *
+     * @return Pour chaque case du résultat, son nombre de mines voisines, ou -1 si elle contient une mine.
+     */
+    public int[] neighbourMineCounts(RevealFieldsResult result) {
+        int count = result.getRevealedCount();
+        int[] counts = new int[count];
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = result.getRevealedIndex(i);
+                counts[i] = board.hasMine(index) ? -1 : board.getNeighbourMineCount(index);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return counts;
+    }
+
+    /**
+     * Écrit l'état visible de la grille, une ligne par rangée : {@code #} case fermée, {@code F} drapeau,
+     * {@code *} mine ouverte, {@code 0} à {@code 8} case ouverte.
+     *
+     * @param out Le tampon de destination.
+     */
+    public void appendVisibleCells(StringBuilder out) {
+        lock.lock();
+        try {
+            touch();
+            int width = board.getWidth();
+            for (int index = 0; index < board.getCellCount(); index++) {
+                if (index > 0 && index % width == 0) {
+                    out.append('\n');
+                }
+                if (board.isOpened(index)) {
+                    out.append(board.hasMine(index) ? '*' : (char) ('0' + board.getNeighbourMineCount(index)));
+                } else {
+                    out.append(board.hasFlag(index) ? 'F' : '#');
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encode l'évolution de l'état visible depuis un coup donné, pour un spectateur : les différentiels
+     * des coups suivants mis bout à bout s'ils sont encore conservés, sinon un instantané de toute la grille.
+     * Les messages se décodent avec {@link org.example.storage.VisibleGrid}.
+     *
+     * @param since Le numéro du dernier coup connu du spectateur, ou -1 pour recevoir un instantané.
+     * @return Les messages, vides si le spectateur est à jour.
+     */
+    public byte[] visibleUpdates(int since) {
+        lock.lock();
+        try {
+            touch();
+            int missed = moveCount - since;
+            if (since < 0 || missed < 0 || missed > recentDeltas.size()) {
+                return visibleState.snapshot(moveCount);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int skipped = recentDeltas.size() - missed;
+            for (byte[] delta : recentDeltas) {
+                if (skipped-- <= 0) {
+                    out.writeBytes(delta);
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Le numéro du dernier coup ayant modifié la grille.
+     */
+    public int getMoveCount() {
+        lock.lock();
+        try {
+            return moveCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Appelée sous le verrou, après un coup qui a modifié au moins une case
+    private void recordMove() {
+        recentDeltas.addLast(visibleState.delta(moveCount, moveCount + 1));
+        moveCount++;
+        if (recentDeltas.size() > RECENT_DELTAS) {
+            recentDeltas.removeFirst();
+        }
+    }
+
+    private void placeMines(int x, int y) {
+        board.replaceMines(mineLayoutGenerator.generateSafe(level.getWidth(), level.getHeight(), level.getMineCount(),
+                seed, x, y));
+        minesPlaced = true;
+    }
+
+    private void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Status getStatus() {
+        lock.lock();
+        try {
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Le nombre de mines moins le nombre de drapeaux posés.
+     */
+    public int getRemainingMineCount() {
+        lock.lock();
+        try {
+            return level.getMineCount() - board.getFlagCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+}
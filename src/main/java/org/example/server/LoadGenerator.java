@@ -0,0 +1,193 @@
+package org.example.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Générateur de charge local pour le {@link GameServer}. Chaque client virtuel est un thread virtuel
+ * qui enchaîne des parties : création d'une session, clics au hasard jusqu'à la fin de la partie, suppression.
+ * Les latences de toutes les requêtes sont relevées puis résumées par centiles.
+ */
+public class LoadGenerator {
+
+    private static final Pattern SESSION_ID = Pattern.compile("\"id\":\"([0-9a-f]+)\"");
+
+    private final HttpClient client;
+    private final URI base;
+    private final String level;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder games = new LongAdder();
+
+    /**
+     * @param port  Le port du serveur sur l'interface de bouclage.
+     * @param level Le niveau des parties créées.
+     */
+    public LoadGenerator(int port, String level) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.base = URI.create("http://127.0.0.1:" + port);
+        this.level = level;
+    }
+
+    /**
+     * Lance {@code clients} clients pendant la durée donnée.
+     *
+     * @return Les latences de toutes les requêtes, en nanosecondes, triées.
+     */
+    public long[] run(int clients, long duration, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(duration);
+        List<Future<long[]>> results = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                long seed = i;
+                results.add(executor.submit(() -> playUntil(deadline, seed)));
+            }
+        }
+        long[][] latencies = new long[clients][];
+        int total = 0;
+        for (int i = 0; i < clients; i++) {
+            try {
+                latencies[i] = results.get(i).get();
+            } catch (Exception e) {
+                latencies[i] = new long[0];
+                errors.increment();
+            }
+            total += latencies[i].length;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (long[] client : latencies) {
+            System.arraycopy(client, 0, merged, offset, client.length);
+            offset += client.length;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private long[] playUntil(long deadline, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] latencies = new long[256];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            String created = send("POST", "/sessions?level=" + level + "&seed=" + random.nextLong());
+            latencies = record(latencies, count++, start);
+            Matcher matcher = created == null ? null : SESSION_ID.matcher(created);
+            if (matcher == null || !matcher.find()) {
+                continue;
+            }
+            String session = "/sessions/" + matcher.group(1);
+            int width = intField(created, "width");
+            int height = intField(created, "height");
+            String response;
+            do {
+                start = System.nanoTime();
+                response = send("POST", session + "/reveal?x=" + random.nextInt(width) + "&y=" + random.nextInt(height));
+                latencies = record(latencies, count++, start);
+            } while (response != null && response.contains("\"status\":\"PLAYING\"") && System.nanoTime() < deadline);
+            start = System.nanoTime();
+            send("DELETE", session);
+            latencies = record(latencies, count++, start);
+            games.increment();
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long[] record(long[] latencies, int position, long start) {
+        long elapsed = System.nanoTime() - start;
+        if (position == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[position] = elapsed;
+        return latencies;
+    }
+
+    private String send(String method, String path) {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve(path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                errors.increment();
+                return null;
+            }
+            return response.body();
+        } catch (IOException e) {
+            errors.increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static int intField(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\":(\\d+)").matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("missing field " + name);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getGameCount() {
+        return games.sum();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e3;
+    }
+
+    /**
+     * Lance la charge. Arguments : nombre de clients (1000), durée en secondes (30), niveau (beginner)
+     * et port d'un serveur existant ; sans port, un serveur est démarré dans la JVM.
+     *
+     * @param args Les arguments de la ligne de commande.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 30;
+        String level = args.length > 2 ? args[2] : "beginner";
+        GameServer embedded = args.length > 3 ? null : new GameServer(0, 10, TimeUnit.MINUTES);
+        int port = embedded != null ? embedded.getPort() : Integer.parseInt(args[3]);
+
+        LoadGenerator generator = new LoadGenerator(port, level);
+        long start = System.nanoTime();
+        long[] latencies = generator.run(clients, seconds, TimeUnit.SECONDS);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d clients, %d parties, %d requêtes en %.1f s (%.0f requêtes/s), %d erreurs%n",
+                clients, generator.getGameCount(), latencies.length, elapsed, latencies.length / elapsed,
+                generator.getErrorCount());
+        System.out.printf("latence (µs) : p50 %.0f, p90 %.0f, p99 %.0f, p99.9 %.0f, max %.0f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), percentile(latencies, 1.0));
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.server;
+
+import org.example.models.Level;
+import org.example.models.MineLayoutGenerator;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registre des sessions, réparti en segments indépendants pour limiter la contention :
+ * chaque segment est une table protégée par son propre verrou, choisie d'après l'identifiant.
+ * Un thread de nettoyage parcourt périodiquement les segments et retire les sessions inactives.
+ */
+public class SessionRegistry implements AutoCloseable {
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final long idleTimeoutNanos;
+    private final MineLayoutGenerator mineLayoutGenerator;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * @param shardCount  Le nombre de segments, arrondi à la puissance de deux supérieure.
+     * @param idleTimeout La durée d'inactivité au-delà de laquelle une session est retirée.
+     * @param unit        L'unité de {@code idleTimeout}.
+     */
+    public SessionRegistry(int shardCount, long idleTimeout, TimeUnit unit) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        int size = Integer.highestOneBit(shardCount - 1) << 1;
+        if (size == 0) {
+            size = 1;
+        }
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardMask = size - 1;
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.mineLayoutGenerator = MineLayoutGenerator.floyd();
+
+        // Balayage à un quart du délai d'inactivité, au plus toutes les secondes
+        long period = Math.max(TimeUnit.SECONDS.toNanos(1), idleTimeoutNanos / 4);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Crée une session et l'enregistre.
+     *
+     * @param level Le niveau de la partie.
+     * @param seed  La graine de la disposition des mines.
+     * @return La nouvelle session.
+     */
+    public GameSession create(Level level, long seed) {
+        // Identifiants non séquentiels, répartis uniformément entre les segments
+        long id = mix(sequence.incrementAndGet());
+        GameSession session = new GameSession(id, level, seed, mineLayoutGenerator);
+        Shard shard = shardOf(id);
+        shard.lock.lock();
+        try {
+            shard.sessions.put(id, session);
+        } finally {
+            shard.lock.unlock();
+        }
+        created.increment();
+        return session;
+    }
+
+    /**
+     * @return La session, ou null si elle n'existe pas ou a été retirée.
+     */
+    public GameSession get(long id) {
+        Shard shard = shardOf(id);
+        shard.lock.lock();
+        try {
+            return shard.sessions.get(id);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @return true si la session existait.
+     */
+    public boolean remove(long id) {
+        Shard shard = shardOf(id);
+        shard.lock.lock();
+        try {
+            return shard.sessions.remove(id) != null;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Retire les sessions inactives depuis plus que le délai configuré.
+     * Les segments sont verrouillés un par un, les autres restent accessibles pendant le balayage.
+     *
+     * @return Le nombre de sessions retirées.
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                Iterator<GameSession> sessions = shard.sessions.values().iterator();
+                while (sessions.hasNext()) {
+                    if (now - sessions.next().getLastAccessNanos() > idleTimeoutNanos) {
+                        sessions.remove();
+                        removed++;
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        evicted.add(removed);
+        return removed;
+    }
+
+    /**
+     * @return Le nombre de sessions enregistrées.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                size += shard.sessions.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private Shard shardOf(long id) {
+        return shards[(int) (id ^ (id >>> 32)) & shardMask];
+    }
+
+    /**
+     * Finaliseur SplitMix64, bijectif : deux numéros distincts donnent deux identifiants distincts.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, GameSession> sessions = new HashMap<>();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.simulation;
+
+import org.example.models.Board;
+
+import java.util.SplittableRandom;
+
+/**
+ * Stratégie de référence : ouvre une case fermée tirée au hasard à chaque coup.
+ */
+public class RandomStrategy implements Strategy {
+
+    private Board board;
+    private SplittableRandom random;
+
+    @Override
+    public void startGame(Board board, long seed) {
+        this.board = board;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextMove() {
+        int cellCount = board.getCellCount();
+        if (board.getOpenedCount() == cellCount) {
+            return RESIGN;
+        }
+        int index;
+        do {
+            index = random.nextInt(cellCount);
+        } while (board.isOpened(index));
+        return index;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.simulation;
+
+import org.example.models.Level;
+
+/**
+ * Résultats d'une simulation : issue des parties, coups joués, tailles des cascades et débit.
+ * Les cascades sont comptées par classes de puissances de deux : la classe k regroupe les coups
+ * ouvrant entre 2^k et 2^(k+1) - 1 cases.
+ */
+public class SimulationReport {
+
+    // Nombre de classes de tailles de cascade, suffisant pour 2^31 cases
+    static final int CASCADE_BUCKETS = 32;
+
+    private final Level level;
+    private final String strategyName;
+    private final long games;
+    private final long wins;
+    private final long losses;
+    private final long resigned;
+    private final long reveals;
+    private final long flags;
+    private final long revealedCells;
+    private final long maxCascade;
+    private final long[] cascadeHistogram;
+    private final long elapsedNanos;
+
+    SimulationReport(Level level, String strategyName, Tally tally, long elapsedNanos) {
+        this.level = level;
+        this.strategyName = strategyName;
+        this.games = tally.games;
+        this.wins = tally.wins;
+        this.losses = tally.losses;
+        this.resigned = tally.resigned;
+        this.reveals = tally.reveals;
+        this.flags = tally.flags;
+        this.revealedCells = tally.revealedCells;
+        this.maxCascade = tally.maxCascade;
+        this.cascadeHistogram = tally.cascadeHistogram.clone();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * @return Le nombre de parties perdues sur une mine.
+     */
+    public long getLosses() {
+        return losses;
+    }
+
+    /**
+     * @return Le nombre de parties abandonnées par la stratégie ou interrompues faute de progrès.
+     */
+    public long getResigned() {
+        return resigned;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * @return Le nombre total de coups, ouvertures et drapeaux confondus.
+     */
+    public long getMoves() {
+        return reveals + flags;
+    }
+
+    public long getReveals() {
+        return reveals;
+    }
+
+    public long getFlags() {
+        return flags;
+    }
+
+    public double getMovesPerGame() {
+        return games == 0 ? 0 : (double) getMoves() / games;
+    }
+
+    /**
+     * @return Le nombre moyen de cases ouvertes par coup d'ouverture.
+     */
+    public double getMeanCascadeSize() {
+        return reveals == 0 ? 0 : (double) revealedCells / reveals;
+    }
+
+    public long getMaxCascadeSize() {
+        return maxCascade;
+    }
+
+    /**
+     * @return Le nombre de coups d'ouverture par classe de taille de cascade.
+     */
+    public long[] getCascadeHistogram() {
+        return cascadeHistogram.clone();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%s sur %s%n", strategyName, level));
+        builder.append(String.format("  parties : %d (%.2f %% gagnées, %d perdues, %d abandonnées)%n",
+                games, getWinRate() * 100, losses, resigned));
+        builder.append(String.format("  coups : %.1f par partie (%d ouvertures, %d drapeaux)%n",
+                getMovesPerGame(), reveals, flags));
+        builder.append(String.format("  cascades : %.2f cases en moyenne, %d au plus%n", getMeanCascadeSize(), maxCascade));
+        for (int bucket = 0; bucket < cascadeHistogram.length; bucket++) {
+            if (cascadeHistogram[bucket] != 0) {
+                builder.append(String.format("    [%d, %d] : %d%n",
+                        1L << bucket, (1L << (bucket + 1)) - 1, cascadeHistogram[bucket]));
+            }
+        }
+        builder.append(String.format("  débit : %.0f parties/s (%.1f s)", getGamesPerSecond(), elapsedNanos / 1e9));
+        return builder.toString();
+    }
+
+    /**
+     * Compteurs d'un ensemble de parties, propres à une tâche puis fusionnés.
+     */
+    static final class Tally {
+        long games;
+        long wins;
+        long losses;
+        long resigned;
+        long reveals;
+        long flags;
+        long revealedCells;
+        long maxCascade;
+        final long[] cascadeHistogram = new long[CASCADE_BUCKETS];
+
+        void recordCascade(int size) {
+            reveals++;
+            revealedCells += size;
+            if (size > 0) {
+                cascadeHistogram[31 - Integer.numberOfLeadingZeros(size)]++;
+                maxCascade = Math.max(maxCascade, size);
+            }
+        }
+
+        void add(Tally other) {
+            games += other.games;
+            wins += other.wins;
+            losses += other.losses;
+            resigned += other.resigned;
+            reveals += other.reveals;
+            flags += other.flags;
+            revealedCells += other.revealedCells;
+            maxCascade = Math.max(maxCascade, other.maxCascade);
+            for (int bucket = 0; bucket < CASCADE_BUCKETS; bucket++) {
+                cascadeHistogram[bucket] += other.cascadeHistogram[bucket];
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.simulation;
+
+import org.example.models.Board;
+import org.example.models.Level;
+import org.example.models.MineLayoutGenerator;
+import org.example.models.RevealFieldsResult.RevealFieldState;
+import org.example.models.RevealListener;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Joue des parties sans interface graphique pour évaluer une {@link Strategy}.
+ * <p>
+ * Les parties sont réparties par plages d'indices sur un {@link ForkJoinPool}. Chaque thread dispose
+ * de sa propre grille et de sa propre stratégie, réutilisées d'une partie à l'autre via {@link Board#reset(int[])}.
+ * La graine de chaque partie est dérivée de la graine de la simulation et de l'indice de la partie,
+ * et les mines sont placées au premier clic comme dans l'interface : une simulation est donc
+ * reproductible quel que soit le nombre de threads.
+ */
+public class SimulationRunner {
+
+    // Nombre de parties jouées d'affilée par une tâche
+    private static final int GAMES_PER_TASK = 256;
+
+    private final Level level;
+    private final Supplier<? extends Strategy> strategies;
+    private final MineLayoutGenerator mineLayoutGenerator;
+    private final ForkJoinPool pool;
+
+    /**
+     * Crée une simulation utilisant le générateur de Floyd et le ForkJoinPool commun.
+     *
+     * @param level      Le niveau des parties.
+     * @param strategies Fournit une instance de stratégie par thread.
+     */
+    public SimulationRunner(Level level, Supplier<? extends Strategy> strategies) {
+        this(level, strategies, MineLayoutGenerator.floyd(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param level               Le niveau des parties.
+     * @param strategies          Fournit une instance de stratégie par thread.
+     * @param mineLayoutGenerator Le générateur des dispositions de mines.
+     * @param pool                Le pool sur lequel les parties sont jouées.
+     */
+    public SimulationRunner(Level level, Supplier<? extends Strategy> strategies,
+                            MineLayoutGenerator mineLayoutGenerator, ForkJoinPool pool) {
+        this.level = level;
+        this.strategies = strategies;
+        this.mineLayoutGenerator = mineLayoutGenerator;
+        this.pool = pool;
+    }
+
+    /**
+     * Joue {@code games} parties.
+     *
+     * @param games Le nombre de parties.
+     * @param seed  La graine de la simulation.
+     * @return Le rapport de la simulation.
+     */
+    public SimulationReport run(long games, long seed) {
+        if (games < 0) {
+            throw new IllegalArgumentException("games cannot be negative");
+        }
+        ThreadLocal<Player> players = ThreadLocal.withInitial(Player::new);
+        long start = System.nanoTime();
+        SimulationReport.Tally tally = pool.invoke(new GamesTask(players, seed, 0, games));
+        long elapsed = System.nanoTime() - start;
+        return new SimulationReport(level, strategies.get().getName(), tally, elapsed);
+    }
+
+    /**
+     * Dérive la graine de la partie d'indice {@code game} (finaliseur SplitMix64).
+     */
+    private static long gameSeed(long seed, long game) {
+        long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Grille et stratégie propres à un thread.
+     */
+    private final class Player implements RevealListener {
+        private final Board board = new Board(level.getWidth(), level.getHeight(), new int[0]);
+        private final Strategy strategy = strategies.get();
+        private int cascade;
+
+        void play(long seed, SimulationReport.Tally tally) {
+            int width = board.getWidth();
+            int cellCount = board.getCellCount();
+            int first = strategy.firstMove(width, board.getHeight());
+            board.reset(mineLayoutGenerator.generateSafe(width, board.getHeight(), level.getMineCount(), seed,
+                    first % width, first / width));
+            strategy.startGame(board, seed);
+            tally.games++;
+
+            // Garde contre une stratégie qui ne progresse plus
+            int maxMoves = 4 * cellCount + 16;
+            int move = first;
+            for (int moves = 0; ; moves++) {
+                if (move == Strategy.RESIGN || moves >= maxMoves) {
+                    tally.resigned++;
+                    return;
+                }
+                int cell = Strategy.cellOf(move);
+                if (Strategy.isFlag(move)) {
+                    board.flagField(board.xOf(cell), board.yOf(cell));
+                    tally.flags++;
+                } else {
+                    cascade = 0;
+                    RevealFieldState state = board.revealFields(board.xOf(cell), board.yOf(cell), this);
+                    tally.recordCascade(cascade);
+                    if (state == RevealFieldState.FOUND_MINE) {
+                        tally.losses++;
+                        return;
+                    }
+                    if (board.hasWon()) {
+                        tally.wins++;
+                        return;
+                    }
+                }
+                move = strategy.nextMove();
+            }
+        }
+
+        @Override
+        public void fieldRevealed(int index) {
+            cascade++;
+            strategy.fieldRevealed(index);
+        }
+    }
+
+    private final class GamesTask extends RecursiveTask<SimulationReport.Tally> {
+        private final ThreadLocal<Player> players;
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        GamesTask(ThreadLocal<Player> players, long seed, long from, long to) {
+            this.players = players;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationReport.Tally compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                SimulationReport.Tally tally = new SimulationReport.Tally();
+                Player player = players.get();
+                for (long game = from; game < to; game++) {
+                    player.play(gameSeed(seed, game), tally);
+                }
+                return tally;
+            }
+            long middle = (from + to) >>> 1;
+            GamesTask right = new GamesTask(players, seed, middle, to);
+            right.fork();
+            SimulationReport.Tally tally = new GamesTask(players, seed, from, middle).compute();
+            tally.add(right.join());
+            return tally;
+        }
+    }
+
+    /**
+     * Lance une simulation depuis la ligne de commande.
+     * Arguments : niveau ({@code beginner}, {@code intermediate}, {@code expert} ou {@code LxHxM}),
+     * nombre de parties, graine et stratégie ({@code solver} ou {@code random}).
+     *
+     * @param args Les arguments de la ligne de commande.
+     */
+    public static void main(String[] args) {
+        Level level = parseLevel(args.length > 0 ? args[0] : "expert");
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        String strategy = args.length > 3 ? args[3] : "solver";
+        Supplier<? extends Strategy> strategies = switch (strategy) {
+            case "solver" -> SolverStrategy::new;
+            case "random" -> RandomStrategy::new;
+            default -> throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        };
+        System.out.println(new SimulationRunner(level, strategies).run(games, seed));
+    }
+
+    private static Level parseLevel(String name) {
+        return switch (name) {
+            case "beginner" -> Level.getBeginner();
+            case "intermediate" -> Level.getIntermediate();
+            case "expert" -> Level.getExpert();
+            default -> {
+                String[] parts = name.split("x");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Unknown level: " + name);
+                }
+                yield new Level(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            }
+        };
+    }
+}
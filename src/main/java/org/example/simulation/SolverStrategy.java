@@ -0,0 +1,48 @@
+package org.example.simulation;
+
+import org.example.models.Board;
+import org.example.solver.ConstraintSolver;
+import org.example.solver.ProbabilityCalculator;
+
+/**
+ * Stratégie jouant les coups certains du {@link ConstraintSolver} puis, lorsqu'aucun coup n'est certain,
+ * la case la moins risquée selon le {@link ProbabilityCalculator}. Le moteur est réutilisé d'une partie
+ * à l'autre tant que la grille est la même.
+ */
+public class SolverStrategy implements Strategy {
+
+    private final ProbabilityCalculator probabilityCalculator;
+    private ConstraintSolver solver;
+
+    public SolverStrategy() {
+        this(new ProbabilityCalculator());
+    }
+
+    public SolverStrategy(ProbabilityCalculator probabilityCalculator) {
+        this.probabilityCalculator = probabilityCalculator;
+    }
+
+    @Override
+    public void startGame(Board board, long seed) {
+        if (solver == null || solver.getBoard() != board) {
+            solver = new ConstraintSolver(board);
+        } else {
+            solver.reset();
+        }
+    }
+
+    @Override
+    public void fieldRevealed(int index) {
+        solver.markOpened(index);
+    }
+
+    @Override
+    public int nextMove() {
+        int cell = solver.nextSafeCell();
+        if (cell >= 0) {
+            return cell;
+        }
+        cell = probabilityCalculator.compute(solver).getSafestCell();
+        return cell >= 0 ? cell : RESIGN;
+    }
+}
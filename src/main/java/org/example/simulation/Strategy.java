@@ -0,0 +1,85 @@
+package org.example.simulation;
+
+import org.example.models.Board;
+import org.example.models.RevealListener;
+
+/**
+ * Stratégie de jeu pilotée par le {@link SimulationRunner}.
+ * <p>
+ * Une stratégie ne doit lire que l'état visible de la grille : cases ouvertes, comptes des cases ouvertes
+ * et drapeaux. Les cases ouvertes par chaque coup lui sont signalées pendant la cascade par
+ * {@link #fieldRevealed(int)}. Un coup est un entier : l'indice d'une case à ouvrir,
+ * {@link #flag(int)} pour poser ou retirer un drapeau, ou {@link #RESIGN} pour abandonner.
+ * <p>
+ * Une instance n'est utilisée que par un thread à la fois et sert à plusieurs parties successives.
+ */
+public interface Strategy extends RevealListener {
+
+    /**
+     * Coup signalant l'abandon de la partie.
+     */
+    int RESIGN = Integer.MIN_VALUE;
+
+    /**
+     * Encode un coup posant ou retirant un drapeau.
+     *
+     * @param index L'indice de la case.
+     * @return Le coup correspondant.
+     */
+    static int flag(int index) {
+        return -index - 1;
+    }
+
+    /**
+     * @param move Un coup autre que {@link #RESIGN}.
+     * @return true si le coup pose ou retire un drapeau.
+     */
+    static boolean isFlag(int move) {
+        return move < 0;
+    }
+
+    /**
+     * @param move Un coup autre que {@link #RESIGN}.
+     * @return L'indice de la case visée par le coup.
+     */
+    static int cellOf(int move) {
+        return move < 0 ? -move - 1 : move;
+    }
+
+    /**
+     * Choisit le premier clic, avant que les mines ne soient placées. Par défaut, le centre de la grille.
+     *
+     * @param width  La largeur de la grille.
+     * @param height La hauteur de la grille.
+     * @return L'indice de la case à ouvrir en premier.
+     */
+    default int firstMove(int width, int height) {
+        return (height / 2) * width + width / 2;
+    }
+
+    /**
+     * Commence une partie. Les mines sont placées, aucune case n'est encore ouverte.
+     *
+     * @param board La grille de la partie, réutilisée d'une partie à l'autre sur un même thread.
+     * @param seed  La graine de la partie, pour les stratégies aléatoires reproductibles.
+     */
+    void startGame(Board board, long seed);
+
+    /**
+     * Choisit le coup suivant.
+     *
+     * @return Le coup à jouer.
+     */
+    int nextMove();
+
+    @Override
+    default void fieldRevealed(int index) {
+    }
+
+    /**
+     * @return Le nom de la stratégie, utilisé dans les rapports.
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
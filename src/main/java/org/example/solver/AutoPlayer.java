@@ -0,0 +1,104 @@
+package org.example.solver;
+
+import org.example.models.Board;
+import org.example.models.RevealFieldsResult.RevealFieldState;
+
+/**
+ * Joue automatiquement les coups certains fournis par un {@link ConstraintSolver}.
+ * Les cases ouvertes par chaque coup sont transmises au moteur pendant la cascade :
+ * la frontière n'est jamais reconstruite.
+ */
+public final class AutoPlayer {
+
+    private AutoPlayer() {
+    }
+
+    /**
+     * Ouvre une case déduite sûre, si le moteur en connaît une.
+     * Un drapeau posé à tort sur la case est retiré avant l'ouverture.
+     *
+     * @param board  La grille jouée.
+     * @param solver Le moteur associé à la grille.
+     * @return L'état du coup, ou null s'il n'existe aucun coup certain.
+     */
+    public static RevealFieldState step(Board board, ConstraintSolver solver) {
+        int cell = solver.nextSafeCell();
+        if (cell < 0) {
+            return null;
+        }
+        int x = board.xOf(cell);
+        int y = board.yOf(cell);
+        if (board.hasFlag(cell)) {
+            board.flagField(x, y);
+        }
+        RevealFieldState state = board.revealFields(x, y, solver);
+        if (state == RevealFieldState.FIELD_NOT_REVEALED) {
+            // La case était déjà ouverte : le moteur doit tout de même l'oublier
+            solver.markOpened(cell);
+        }
+        return state;
+    }
+
+    /**
+     * Ouvre en une seule cascade toutes les cases déduites sûres que le moteur connaît.
+     * Les drapeaux posés à tort sur ces cases sont retirés avant l'ouverture.
+     *
+     * @param board  La grille jouée.
+     * @param solver Le moteur associé à la grille.
+     * @return L'état du coup, ou null s'il n'existe aucun coup certain.
+     */
+    public static RevealFieldState stepAll(Board board, ConstraintSolver solver) {
+        if (solver.nextSafeCell() < 0) {
+            return null;
+        }
+        int[] cells = solver.getSafeCells();
+        for (int cell : cells) {
+            if (board.hasFlag(cell)) {
+                board.flagField(board.xOf(cell), board.yOf(cell));
+            } else if (board.isOpened(cell)) {
+                // Le moteur doit oublier les cases déjà ouvertes, que la cascade ne signalera pas
+                solver.markOpened(cell);
+            }
+        }
+        return board.revealAll(cells, cells.length, solver);
+    }
+
+    /**
+     * Joue tous les coups certains jusqu'à la victoire ou jusqu'à ce qu'un choix risqué soit nécessaire.
+     * Chaque coup ouvre ensemble toutes les cases sûres connues, par {@link #stepAll(Board, ConstraintSolver)}.
+     *
+     * @param board  La grille jouée.
+     * @param solver Le moteur associé à la grille.
+     * @return Le nombre de coups joués.
+     */
+    public static int playSafeMoves(Board board, ConstraintSolver solver) {
+        int moves = 0;
+        RevealFieldState state;
+        while (!board.hasWon() && (state = stepAll(board, solver)) != null) {
+            moves++;
+            if (state == RevealFieldState.FOUND_MINE) {
+                break;
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Pose un drapeau sur chaque case déduite minée qui n'en porte pas encore.
+     *
+     * @param board  La grille jouée.
+     * @param solver Le moteur associé à la grille.
+     * @return Le nombre de drapeaux posés.
+     */
+    public static int flagDeducedMines(Board board, ConstraintSolver solver) {
+        solver.deduce();
+        int flagged = 0;
+        for (int cell : solver.getMineCells()) {
+            if (!board.hasFlag(cell) && !board.isOpened(cell)) {
+                board.flagField(board.xOf(cell), board.yOf(cell));
+                flagged++;
+            }
+        }
+        return flagged;
+    }
+}
@@ -0,0 +1,582 @@
+package org.example.solver;
+
+import org.example.models.Board;
+import org.example.models.BoardHistory;
+import org.example.models.RevealFieldsResult;
+import org.example.models.RevealListener;
+import org.example.models.Topology;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Moteur de déduction déterministe travaillant sur l'état visible d'une grille.
+ * Seuls les comptes des cases ouvertes sont utilisés ; les mines des cases fermées ne sont jamais lues,
+ * et les drapeaux du joueur ne servent qu'à la validation ({@link #getIncorrectFlags()}).
+ * <p>
+ * Chaque case ouverte portant un nombre est une contrainte sur ses voisines inconnues.
+ * Deux règles sont appliquées jusqu'à saturation :
+ * <ul>
+ *     <li>règle simple : si le nombre de mines restantes d'une contrainte vaut 0, ses voisines inconnues sont sûres ;
+ *     s'il vaut le nombre de voisines inconnues, elles sont toutes minées ;</li>
+ *     <li>règle des sous-ensembles : si les inconnues d'une contrainte A sont incluses dans celles d'une contrainte B,
+ *     les inconnues de B absentes de A contiennent exactement r(B) - r(A) mines.</li>
+ * </ul>
+ * La frontière (cases inconnues voisines d'un nombre) et la file des contraintes à réexaminer sont mises à jour
+ * à chaque case ouverte ou déduite : seules les contraintes touchées par un coup sont réévaluées.
+ * Le moteur peut être passé directement comme observateur à {@link Board#revealFields(int, int, RevealListener)}.
+ * <p>
+ * Il peut aussi suivre un {@link BoardHistory} dont il est l'observateur : chaque version appliquée lui transmet
+ * ses cases ouvertes, et chaque version défaite annule les ouvertures et toutes les déductions faites depuis,
+ * grâce à un journal des états modifiés. Annuler un coup hypothétique ou changer de branche ne coûte ainsi
+ * que les cases touchées depuis, sans relire la grille. Le moteur ne doit alors pas être passé en plus
+ * comme observateur des coups de l'historique.
+ */
+public class ConstraintSolver implements RevealListener, BoardHistory.Listener {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte OPENED = 1;
+    private static final byte SAFE = 2;
+    private static final byte MINE = 3;
+
+    private final Board board;
+    private final Topology topology;
+    private final byte[] state;
+
+    // Cases inconnues voisines d'au moins une case ouverte numérotée
+    private final BitSet frontier = new BitSet();
+
+    // Cases déduites sûres et pas encore ouvertes
+    private final BitSet pendingSafe = new BitSet();
+
+    // Cases déduites minées
+    private final BitSet deducedMines = new BitSet();
+
+    // File circulaire des contraintes à réexaminer
+    private final BitSet queued = new BitSet();
+    private int[] work = new int[64];
+    private int workHead;
+    private int workSize;
+
+    // Tampons de voisinage, un par niveau d'imbrication des parcours
+    private final int[] neighbours;
+    private final int[] unknownsA;
+    private final int[] unknownsB;
+    private final int[] candidates;
+    private final int[] difference;
+    private final int[] around;
+
+    private boolean consistent = true;
+
+    // Journal des modifications, tenu seulement pendant le suivi d'un historique : paires (case, ancien état),
+    // l'ancien état portant le bit de frontière en bit 2 ; la case -1 note l'ancienne cohérence
+    private int[] trail = new int[64];
+    private int trailSize;
+
+    // Taille du journal avant chaque version appliquée par l'historique suivi, de la plus ancienne à la plus récente
+    private int[] marks = new int[16];
+    private int markCount;
+
+    /**
+     * Crée un moteur à partir de l'état visible actuel de la grille (une seule lecture complète).
+     * Les coups suivants doivent être signalés par {@link #update(RevealFieldsResult)} ou {@link #markOpened(int)}.
+     *
+     * @param board La grille à résoudre.
+     */
+    public ConstraintSolver(Board board) {
+        this.board = board;
+        this.topology = board.getTopology();
+        this.state = new byte[board.getCellCount()];
+        int maxDegree = topology.getMaxDegree();
+        this.neighbours = new int[maxDegree];
+        this.unknownsA = new int[maxDegree];
+        this.unknownsB = new int[maxDegree];
+        this.candidates = new int[maxDegree];
+        this.difference = new int[maxDegree];
+        this.around = new int[maxDegree];
+        scanOpened();
+    }
+
+    /**
+     * Oublie toutes les déductions et repart de l'état visible actuel de la grille,
+     * par exemple après un {@link Board#reset(int[])}. Les tableaux internes sont réutilisés.
+     */
+    public void reset() {
+        Arrays.fill(state, UNKNOWN);
+        frontier.clear();
+        pendingSafe.clear();
+        deducedMines.clear();
+        queued.clear();
+        workHead = 0;
+        workSize = 0;
+        consistent = true;
+        trailSize = 0;
+        markCount = 0;
+        scanOpened();
+    }
+
+    private void scanOpened() {
+        for (int index = 0; index < state.length; index++) {
+            if (board.isOpened(index)) {
+                markOpened(index);
+            }
+        }
+    }
+
+    /**
+     * Prend en compte les cases ouvertes par un coup.
+     *
+     * @param result Le résultat du coup.
+     */
+    public void update(RevealFieldsResult result) {
+        int count = result.getRevealedCount();
+        for (int position = 0; position < count; position++) {
+            markOpened(result.getRevealedIndex(position));
+        }
+    }
+
+    /**
+     * Prend en compte l'ouverture d'une case.
+     *
+     * @param index L'indice de la case ouverte.
+     */
+    public void markOpened(int index) {
+        byte previous = state[index];
+        if (previous == OPENED || previous == MINE) {
+            return;
+        }
+        remember(index);
+        frontier.clear(index);
+        pendingSafe.clear(index);
+        if (board.hasMine(index)) {
+            // Une mine ouverte (partie perdue) est visible du joueur
+            state[index] = MINE;
+            deducedMines.set(index);
+            enqueueConstraintsAround(index);
+            return;
+        }
+
+        state[index] = OPENED;
+        int count = neighbours(index, neighbours);
+        if (board.getNeighbourMineCount(index) > 0) {
+            for (int i = 0; i < count; i++) {
+                if (state[neighbours[i]] == UNKNOWN && !frontier.get(neighbours[i])) {
+                    remember(neighbours[i]);
+                    frontier.set(neighbours[i]);
+                }
+            }
+            enqueue(index);
+        }
+        if (previous == UNKNOWN) {
+            enqueueConstraintsAround(index);
+        }
+    }
+
+    @Override
+    public void fieldRevealed(int index) {
+        markOpened(index);
+    }
+
+    /**
+     * Prend en compte les cases ouvertes par une version de l'historique suivi.
+     */
+    @Override
+    public void versionApplied(BoardHistory.Version version) {
+        if (markCount == marks.length) {
+            marks = Arrays.copyOf(marks, 2 * marks.length);
+        }
+        marks[markCount++] = trailSize;
+        int count = version.getOpenedCount();
+        for (int position = 0; position < count; position++) {
+            markOpened(version.getOpenedIndex(position));
+        }
+    }
+
+    /**
+     * Annule les ouvertures d'une version défaite par l'historique suivi, et toutes les déductions faites depuis.
+     * Une version appliquée avant le début du suivi n'est pas dans le journal : l'état est alors relu depuis la grille.
+     */
+    @Override
+    public void versionReverted(BoardHistory.Version version) {
+        if (markCount == 0) {
+            reset();
+            return;
+        }
+        rollback(marks[--markCount]);
+    }
+
+    /**
+     * Note l'état d'une case avant sa modification, si un historique est suivi.
+     */
+    private void remember(int index) {
+        if (markCount > 0) {
+            push(index, state[index] | (frontier.get(index) ? 4 : 0));
+        }
+    }
+
+    private void push(int index, int previous) {
+        if (trailSize == trail.length) {
+            trail = Arrays.copyOf(trail, 2 * trail.length);
+        }
+        trail[trailSize++] = index;
+        trail[trailSize++] = previous;
+    }
+
+    /**
+     * Restaure l'état noté à une position du journal, puis remet en file les contraintes autour des cases
+     * restaurées : les déductions défaites qui restent valables seront retrouvées par {@link #deduce()}.
+     */
+    private void rollback(int mark) {
+        for (int entry = trailSize - 2; entry >= mark; entry -= 2) {
+            int index = trail[entry];
+            int previous = trail[entry + 1];
+            if (index < 0) {
+                consistent = previous != 0;
+                continue;
+            }
+            byte restored = (byte) (previous & 3);
+            state[index] = restored;
+            frontier.set(index, (previous & 4) != 0);
+            pendingSafe.set(index, restored == SAFE);
+            deducedMines.set(index, restored == MINE);
+        }
+        for (int entry = mark; entry < trailSize; entry += 2) {
+            int index = trail[entry];
+            if (index >= 0) {
+                if (isConstraint(index)) {
+                    enqueue(index);
+                }
+                enqueueConstraintsAround(index);
+            }
+        }
+        trailSize = mark;
+    }
+
+    /**
+     * Applique les règles de déduction jusqu'à ce qu'aucune contrainte en attente ne produise de nouveau résultat.
+     *
+     * @return true si au moins une case a été déduite.
+     */
+    public boolean deduce() {
+        boolean progress = false;
+        while (workSize > 0) {
+            int constraint = dequeue();
+            // Une contrainte en file peut avoir été refermée par une version défaite
+            if (!isConstraint(constraint)) {
+                continue;
+            }
+            if (applySinglePoint(constraint) || applySubsets(constraint)) {
+                progress = true;
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Retourne une case certainement sûre et encore fermée, en déduisant si nécessaire.
+     * Sert d'indice pour le joueur et de coup suivant pour le jeu automatique.
+     *
+     * @return L'indice d'une case sûre, ou -1 s'il n'en existe pas sans prendre de risque.
+     */
+    public int nextSafeCell() {
+        if (pendingSafe.isEmpty()) {
+            deduce();
+        }
+        return pendingSafe.nextSetBit(0);
+    }
+
+    /**
+     * @return Les indices des cases déduites sûres et encore fermées.
+     */
+    public int[] getSafeCells() {
+        return pendingSafe.stream().toArray();
+    }
+
+    /**
+     * @return Les indices des cases déduites minées.
+     */
+    public int[] getMineCells() {
+        return deducedMines.stream().toArray();
+    }
+
+    /**
+     * @return Les indices des cases inconnues voisines d'une case numérotée ouverte.
+     */
+    public int[] getFrontier() {
+        return frontier.stream().toArray();
+    }
+
+    /**
+     * @return Le nombre de cases déduites minées.
+     */
+    public int getDeducedMineCount() {
+        return deducedMines.cardinality();
+    }
+
+    public boolean isDeducedMine(int index) {
+        return state[index] == MINE;
+    }
+
+    public boolean isDeducedSafe(int index) {
+        return state[index] == SAFE;
+    }
+
+    /**
+     * @return true si la case n'est ni ouverte ni déduite.
+     */
+    public boolean isUnknown(int index) {
+        return state[index] == UNKNOWN;
+    }
+
+    /**
+     * @return true si la case est ouverte et porte au moins une mine voisine.
+     */
+    public boolean isConstraint(int index) {
+        return state[index] == OPENED && board.getNeighbourMineCount(index) > 0;
+    }
+
+    /**
+     * Indique si l'état visible est cohérent, c'est-à-dire si aucune contrainte n'exige plus de mines
+     * qu'elle n'a de voisines inconnues ni moins que les mines déjà déduites.
+     *
+     * @return false si une contradiction a été détectée.
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * @return Les indices des cases portant un drapeau alors qu'elles sont déduites sûres.
+     */
+    public int[] getIncorrectFlags() {
+        return pendingSafe.stream().filter(board::hasFlag).toArray();
+    }
+
+    /**
+     * @return La grille résolue.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Nombre de mines restant à placer autour d'une contrainte, compte tenu des mines déjà déduites.
+     */
+    int remainingMines(int constraint) {
+        int count = neighbours(constraint, neighbours);
+        int mines = 0;
+        for (int i = 0; i < count; i++) {
+            if (state[neighbours[i]] == MINE) {
+                mines++;
+            }
+        }
+        return board.getNeighbourMineCount(constraint) - mines;
+    }
+
+    /**
+     * Remplit {@code out} avec les voisines inconnues d'une contrainte.
+     *
+     * @return Le nombre de voisines inconnues.
+     */
+    int unknownNeighbours(int constraint, int[] out) {
+        int count = neighbours(constraint, neighbours);
+        int unknowns = 0;
+        for (int i = 0; i < count; i++) {
+            if (state[neighbours[i]] == UNKNOWN) {
+                out[unknowns++] = neighbours[i];
+            }
+        }
+        return unknowns;
+    }
+
+    /**
+     * Remplit {@code out} avec les voisines d'une case, lues dans la forme de la grille.
+     *
+     * @param out Le tampon de destination, d'au moins {@link Topology#getMaxDegree()} cases.
+     * @return Le nombre de voisines.
+     */
+    int neighbours(int index, int[] out) {
+        return topology.getNeighbours(index, out);
+    }
+
+    private boolean applySinglePoint(int constraint) {
+        int unknowns = unknownNeighbours(constraint, unknownsA);
+        if (unknowns == 0) {
+            if (remainingMines(constraint) != 0) {
+                markInconsistent();
+            }
+            return false;
+        }
+        int remaining = remainingMines(constraint);
+        if (remaining < 0 || remaining > unknowns) {
+            markInconsistent();
+            return false;
+        }
+        if (remaining == 0) {
+            for (int i = 0; i < unknowns; i++) {
+                markSafe(unknownsA[i]);
+            }
+            return true;
+        }
+        if (remaining == unknowns) {
+            for (int i = 0; i < unknowns; i++) {
+                markMine(unknownsA[i]);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compare la contrainte aux contraintes qui partagent au moins une de ses inconnues.
+     */
+    private boolean applySubsets(int a) {
+        int sizeA = unknownNeighbours(a, unknownsA);
+        if (sizeA == 0) {
+            return false;
+        }
+        int remainingA = remainingMines(a);
+        for (int i = 0; i < sizeA; i++) {
+            int candidateCount = neighbours(unknownsA[i], candidates);
+            for (int j = 0; j < candidateCount; j++) {
+                int b = candidates[j];
+                if (b == a || !isConstraint(b)) {
+                    continue;
+                }
+                int sizeB = unknownNeighbours(b, unknownsB);
+                int remainingB = remainingMines(b);
+                if (sizeB > sizeA && contains(unknownsB, sizeB, unknownsA, sizeA)) {
+                    if (applyDifference(unknownsB, sizeB, unknownsA, sizeA, remainingB - remainingA)) {
+                        return true;
+                    }
+                } else if (sizeA > sizeB && contains(unknownsA, sizeA, unknownsB, sizeB)) {
+                    if (applyDifference(unknownsA, sizeA, unknownsB, sizeB, remainingA - remainingB)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applique la règle des sous-ensembles : les cases de {@code superset} absentes de {@code subset}
+     * contiennent exactement {@code mines} mines.
+     */
+    private boolean applyDifference(int[] superset, int supersetSize, int[] subset, int subsetSize, int mines) {
+        int size = 0;
+        for (int i = 0; i < supersetSize; i++) {
+            if (!contains(subset, subsetSize, superset[i])) {
+                difference[size++] = superset[i];
+            }
+        }
+        if (mines < 0 || mines > size) {
+            markInconsistent();
+            return false;
+        }
+        if (mines == 0) {
+            for (int i = 0; i < size; i++) {
+                markSafe(difference[i]);
+            }
+            return true;
+        }
+        if (mines == size) {
+            for (int i = 0; i < size; i++) {
+                markMine(difference[i]);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean contains(int[] set, int size, int[] subset, int subsetSize) {
+        for (int i = 0; i < subsetSize; i++) {
+            if (!contains(set, size, subset[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] set, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (set[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markInconsistent() {
+        if (consistent && markCount > 0) {
+            push(-1, 1);
+        }
+        consistent = false;
+    }
+
+    private void markSafe(int index) {
+        if (state[index] != UNKNOWN) {
+            return;
+        }
+        remember(index);
+        state[index] = SAFE;
+        frontier.clear(index);
+        pendingSafe.set(index);
+        enqueueConstraintsAround(index);
+    }
+
+    private void markMine(int index) {
+        if (state[index] != UNKNOWN) {
+            return;
+        }
+        remember(index);
+        state[index] = MINE;
+        frontier.clear(index);
+        deducedMines.set(index);
+        enqueueConstraintsAround(index);
+    }
+
+    /**
+     * Remet en file les contraintes voisines d'une case dont l'état vient de changer.
+     * Un tampon dédié est utilisé car l'appel peut survenir pendant un parcours des autres tampons.
+     */
+    private void enqueueConstraintsAround(int index) {
+        int count = neighbours(index, around);
+        for (int i = 0; i < count; i++) {
+            if (isConstraint(around[i])) {
+                enqueue(around[i]);
+            }
+        }
+    }
+
+    private void enqueue(int constraint) {
+        if (queued.get(constraint)) {
+            return;
+        }
+        queued.set(constraint);
+        if (workSize == work.length) {
+            int[] grown = new int[work.length * 2];
+            for (int i = 0; i < workSize; i++) {
+                grown[i] = work[(workHead + i) % work.length];
+            }
+            work = grown;
+            workHead = 0;
+        }
+        work[(workHead + workSize) % work.length] = constraint;
+        workSize++;
+    }
+
+    private int dequeue() {
+        int constraint = work[workHead];
+        workHead = (workHead + 1) % work.length;
+        workSize--;
+        queued.clear(constraint);
+        return constraint;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstraintSolver[frontier=" + frontier.cardinality() + ", safe=" + pendingSafe.cardinality()
+                + ", mines=" + deducedMines.cardinality() + ", pending=" + workSize + "]";
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.solver;
+
+/**
+ * Statistiques cumulées d'un {@link NoGuessGenerator} : nombre de grilles candidates vérifiées,
+ * nombre de grilles acceptées et temps passé à générer.
+ */
+public class GenerationStatistics {
+
+    private final long candidates;
+    private final long accepted;
+    private final long requests;
+    private final long failures;
+    private final long elapsedNanos;
+
+    GenerationStatistics(long candidates, long accepted, long requests, long failures, long elapsedNanos) {
+        this.candidates = candidates;
+        this.accepted = accepted;
+        this.requests = requests;
+        this.failures = failures;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return Le nombre de grilles candidates vérifiées, y compris celles abandonnées en cours de vérification.
+     */
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return Le nombre de grilles candidates résolues sans hasard.
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return Le nombre de grilles demandées.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return Le nombre de demandes pour lesquelles aucune grille sans hasard n'a été trouvée.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return Le temps total passé à générer, en nanosecondes.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return La proportion de candidates acceptées.
+     */
+    public double getAcceptanceRate() {
+        return candidates == 0 ? 0 : (double) accepted / candidates;
+    }
+
+    /**
+     * @return Le nombre de candidates vérifiées par seconde, tous cœurs confondus.
+     */
+    public double getCandidatesPerSecond() {
+        return elapsedNanos == 0 ? 0 : candidates * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return Le nombre de grilles produites par seconde.
+     */
+    public double getBoardsPerSecond() {
+        return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d grilles, %d candidates (%.1f %% acceptées), %.0f candidates/s, %.1f grilles/s",
+                requests, candidates, getAcceptanceRate() * 100, getCandidatesPerSecond(), getBoardsPerSecond());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.solver;
+
+import java.math.BigInteger;
+
+/**
+ * Probabilités exactes de mine des cases d'une grille, calculées par {@link ProbabilityCalculator}.
+ * Les cases ouvertes ont une probabilité nulle, les cases déduites minées une probabilité de 1.
+ */
+public class MineProbabilities {
+
+    private final int width;
+    private final double[] probabilities;
+    private final boolean[] closed;
+    private final BigInteger solutionCount;
+    private final int componentCount;
+
+    MineProbabilities(int width, double[] probabilities, boolean[] closed, BigInteger solutionCount,
+                      int componentCount) {
+        this.width = width;
+        this.probabilities = probabilities;
+        this.closed = closed;
+        this.solutionCount = solutionCount;
+        this.componentCount = componentCount;
+    }
+
+    /**
+     * @param index L'indice de la case.
+     * @return La probabilité que la case contienne une mine.
+     */
+    public double get(int index) {
+        return probabilities[index];
+    }
+
+    /**
+     * @param x La position horizontale de la case.
+     * @param y La position verticale de la case.
+     * @return La probabilité que la case contienne une mine.
+     */
+    public double get(int x, int y) {
+        return probabilities[y * width + x];
+    }
+
+    /**
+     * Retourne la case fermée la moins risquée. En cas d'égalité, la plus petite case est retenue.
+     *
+     * @return L'indice de la case, ou -1 si toutes les cases sont ouvertes.
+     */
+    public int getSafestCell() {
+        int best = -1;
+        for (int index = 0; index < probabilities.length; index++) {
+            if (closed[index] && (best < 0 || probabilities[index] < probabilities[best])) {
+                best = index;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Nombre exact de placements de mines compatibles avec l'état visible, y compris dans les cases
+     * sans contrainte. Une valeur nulle indique un état incohérent.
+     *
+     * @return Le nombre de placements.
+     */
+    public BigInteger getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * @return true si au moins un placement de mines est compatible avec l'état visible.
+     */
+    public boolean isConsistent() {
+        return solutionCount.signum() > 0;
+    }
+
+    /**
+     * @return Le nombre de composantes indépendantes de la frontière.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+}
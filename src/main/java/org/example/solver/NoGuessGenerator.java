@@ -0,0 +1,205 @@
+package org.example.solver;
+
+import org.example.metrics.Metrics;
+import org.example.models.Board;
+import org.example.models.MineLayoutGenerator;
+import org.example.models.RevealFieldsResult.RevealFieldState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Générateur de grilles « sans hasard » : la disposition retournée par
+ * {@link #generateSafe(int, int, int, long, int, int)} se résout entièrement à partir du premier clic
+ * par le {@link ConstraintSolver}, sans jamais devoir deviner.
+ * <p>
+ * Les grilles candidates sont produites par un générateur sous-jacent à partir de graines dérivées
+ * de la graine demandée, puis vérifiées en parallèle sur un {@link ForkJoinPool}. Chaque tâche prend
+ * la candidate suivante ; dès qu'une candidate est acceptée, les tâches qui vérifient une candidate
+ * de rang supérieur l'abandonnent. La candidate acceptée de plus petit rang est retenue, si bien qu'une
+ * même graine et un même premier clic donnent toujours la même grille, quel que soit le nombre de cœurs.
+ * <p>
+ * {@link #generate(int, int, int, long, int[])} ne connaît pas le premier clic et délègue au générateur sous-jacent.
+ * Lorsqu'aucune candidate n'est résoluble, {@link #generateSafe(int, int, int, long, int, int)} retourne
+ * en silence une grille ordinaire ; un appelant qui doit le savoir, par exemple pour l'indiquer au joueur
+ * ou l'enregistrer, utilise {@link #findSolvable(int, int, int, long, int, int)}.
+ */
+public class NoGuessGenerator implements MineLayoutGenerator {
+
+    // Nombre de candidates vérifiées avant de renoncer et de retourner une grille ordinaire
+    public static final long DEFAULT_MAX_CANDIDATES = 100_000;
+
+    private final MineLayoutGenerator source;
+    private final ForkJoinPool pool;
+    private final long maxCandidates;
+
+    private final LongAdder candidateCount = new LongAdder();
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+
+    /**
+     * Crée un générateur basé sur l'échantillonnage de Floyd, vérifiant les candidates sur le ForkJoinPool commun.
+     */
+    public NoGuessGenerator() {
+        this(MineLayoutGenerator.floyd(), ForkJoinPool.commonPool(), DEFAULT_MAX_CANDIDATES);
+    }
+
+    /**
+     * @param source        Le générateur des grilles candidates.
+     * @param pool          Le pool sur lequel les candidates sont vérifiées.
+     * @param maxCandidates Le nombre maximal de candidates vérifiées par grille demandée.
+     */
+    public NoGuessGenerator(MineLayoutGenerator source, ForkJoinPool pool, long maxCandidates) {
+        if (maxCandidates <= 0) {
+            throw new IllegalArgumentException("maxCandidates must be positive");
+        }
+        this.source = source;
+        this.pool = pool;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public int[] generate(int width, int height, int mineCount, long seed, int[] excluded) {
+        return source.generate(width, height, mineCount, seed, excluded);
+    }
+
+    /**
+     * Génère une disposition sans mine autour du premier clic et résoluble sans hasard à partir de celui-ci.
+     * Si aucune des candidates autorisées n'est résoluble, la disposition ordinaire du générateur
+     * sous-jacent est retournée et l'échec est compté dans les statistiques.
+     */
+    @Override
+    public int[] generateSafe(int width, int height, int mineCount, long seed, int safeX, int safeY) {
+        int[] layout = findSolvable(width, height, mineCount, seed, safeX, safeY);
+        return layout != null ? layout : source.generateSafe(width, height, mineCount, seed, safeX, safeY);
+    }
+
+    /**
+     * Cherche une disposition sans mine autour du premier clic et résoluble sans hasard à partir de celui-ci,
+     * comme {@link #generateSafe(int, int, int, long, int, int)}, mais sans grille ordinaire de repli.
+     *
+     * @return Les indices triés des cases minées, ou null si aucune des candidates autorisées n'est résoluble ;
+     * l'échec est alors compté dans les statistiques.
+     */
+    public int[] findSolvable(int width, int height, int mineCount, long seed, int safeX, int safeY) {
+        long start = System.nanoTime();
+        Search search = new Search(width, height, mineCount, seed, safeX, safeY);
+        List<ForkJoinTask<?>> workers = new ArrayList<>(pool.getParallelism());
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            workers.add(pool.submit(search::run));
+        }
+        for (ForkJoinTask<?> worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        requestCount.increment();
+        elapsedNanos.add(elapsed);
+        if (Metrics.ENABLED) {
+            Metrics.NO_GUESS_LAYOUT.record(elapsed);
+        }
+
+        if (search.acceptedLayout == null) {
+            failureCount.increment();
+        }
+        return search.acceptedLayout;
+    }
+
+    /**
+     * Vérifie qu'une disposition se résout sans hasard à partir du clic en (x, y).
+     *
+     * @return true si le moteur de déduction gagne la partie.
+     */
+    public static boolean isSolvable(int width, int height, int[] layout, int x, int y) {
+        return solve(width, height, layout, x, y, null, 0);
+    }
+
+    /**
+     * @return Un instantané des statistiques cumulées depuis la création du générateur.
+     */
+    public GenerationStatistics getStatistics() {
+        return new GenerationStatistics(candidateCount.sum(), acceptedCount.sum(), requestCount.sum(),
+                failureCount.sum(), elapsedNanos.sum());
+    }
+
+    private static boolean solve(int width, int height, int[] layout, int x, int y, AtomicLong acceptedIndex,
+                                 long index) {
+        Board board = new Board(width, height, layout);
+        ConstraintSolver solver = new ConstraintSolver(board);
+        if (board.revealFields(x, y, solver) == RevealFieldState.FOUND_MINE) {
+            return false;
+        }
+        while (!board.hasWon()) {
+            // Abandon dès qu'une candidate de rang inférieur a été acceptée
+            if (acceptedIndex != null && acceptedIndex.get() < index) {
+                return false;
+            }
+            if (AutoPlayer.step(board, solver) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dérive la graine de la candidate de rang {@code index} (finaliseur SplitMix64).
+     */
+    private static long candidateSeed(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * État partagé par les tâches d'une même demande.
+     */
+    private final class Search {
+        private final int width;
+        private final int height;
+        private final int mineCount;
+        private final long seed;
+        private final int safeX;
+        private final int safeY;
+        private final AtomicLong nextIndex = new AtomicLong();
+        private final AtomicLong acceptedIndex = new AtomicLong(Long.MAX_VALUE);
+        private volatile int[] acceptedLayout;
+
+        Search(int width, int height, int mineCount, long seed, int safeX, int safeY) {
+            this.width = width;
+            this.height = height;
+            this.mineCount = mineCount;
+            this.seed = seed;
+            this.safeX = safeX;
+            this.safeY = safeY;
+        }
+
+        void run() {
+            while (true) {
+                long index = nextIndex.getAndIncrement();
+                if (index >= maxCandidates || index > acceptedIndex.get()) {
+                    return;
+                }
+                candidateCount.increment();
+                int[] layout = source.generateSafe(width, height, mineCount, candidateSeed(seed, index), safeX, safeY);
+                if (solve(width, height, layout, safeX, safeY, acceptedIndex, index)) {
+                    acceptedCount.increment();
+                    accept(index, layout);
+                    return;
+                }
+            }
+        }
+
+        private synchronized void accept(long index, int[] layout) {
+            if (index < acceptedIndex.get()) {
+                acceptedLayout = layout;
+                acceptedIndex.set(index);
+            }
+        }
+    }
+}
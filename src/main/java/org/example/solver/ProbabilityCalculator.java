@@ -0,0 +1,681 @@
+package org.example.solver;
+
+import org.example.models.Board;
+import org.example.models.Topology;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calcul exact de la probabilité de mine de chaque case fermée, à partir de l'état visible.
+ * <p>
+ * La frontière d'un {@link ConstraintSolver} est découpée en composantes indépendantes : deux cases
+ * appartiennent à la même composante lorsqu'une contrainte les relie. Chaque composante est énumérée
+ * par retour arrière avec élagage, en parallèle sur un {@link ForkJoinPool} ; les grandes composantes
+ * sont elles-mêmes réparties en sous-arbres. Les cases soumises aux mêmes contraintes sont regroupées
+ * et énumérées par leur nombre de mines, pondéré par un coefficient binomial. On obtient, pour chaque nombre k de mines dans la composante,
+ * le nombre de solutions et le nombre de solutions où chaque case est minée.
+ * <p>
+ * Les composantes sont ensuite combinées avec le nombre global de mines restantes : une combinaison
+ * utilisant s mines sur la frontière est pondérée par C(I, M - s), où I est le nombre de cases fermées
+ * sans contrainte et M le nombre de mines non déduites. Tous les comptes sont entiers et exacts :
+ * l'énumération compte en long tant que les comptes y tiennent, puis en BigInteger pour la composante
+ * dont un poids ou un compte dépasse ; seule la division finale est arrondie en double.
+ */
+public class ProbabilityCalculator {
+
+    // Nombre minimal de groupes restants pour répartir un sous-arbre entre plusieurs tâches
+    private static final int SPLIT_MIN_REMAINING = 12;
+
+    // Profondeur maximale de répartition
+    private static final int MAX_SPLIT_DEPTH = 4;
+
+    // Coefficients binomiaux C(n, k) pour n <= Topology.MAX_DEGREE, taille maximale d'un groupe de cases
+    private static final long[][] BINOMIALS = new long[Topology.MAX_DEGREE + 1][Topology.MAX_DEGREE + 1];
+
+    static {
+        for (int n = 0; n < BINOMIALS.length; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Crée un calculateur utilisant le ForkJoinPool commun.
+     */
+    public ProbabilityCalculator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool Le pool sur lequel les composantes sont énumérées.
+     */
+    public ProbabilityCalculator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Calcule les probabilités de mine de la grille suivie par le moteur.
+     * Les déductions en attente du moteur sont appliquées au préalable.
+     *
+     * @param solver Le moteur de déduction à jour.
+     * @return Les probabilités de chaque case.
+     */
+    public MineProbabilities compute(ConstraintSolver solver) {
+        solver.deduce();
+        Board board = solver.getBoard();
+        int cellCount = board.getCellCount();
+
+        List<Component> components = buildComponents(solver);
+        List<EnumerationTask> tasks = new ArrayList<>(components.size());
+        int remainingMines = board.getMineCount() - solver.getDeducedMineCount();
+        for (Component component : components) {
+            EnumerationTask task = new EnumerationTask(component, remainingMines);
+            tasks.add(task);
+            pool.execute(task);
+        }
+
+        double[] probabilities = new double[cellCount];
+        boolean[] closed = new boolean[cellCount];
+        BitSet frontier = new BitSet(cellCount);
+        for (Component component : components) {
+            for (int[] group : component.groups) {
+                for (int cell : group) {
+                    frontier.set(cell);
+                }
+            }
+        }
+        int interior = 0;
+        for (int index = 0; index < cellCount; index++) {
+            if (board.isOpened(index)) {
+                continue;
+            }
+            closed[index] = true;
+            if (solver.isDeducedMine(index)) {
+                probabilities[index] = 1.0;
+            } else if (solver.isUnknown(index) && !frontier.get(index)) {
+                interior++;
+            }
+        }
+
+        Tally[] tallies = new Tally[tasks.size()];
+        for (int i = 0; i < tallies.length; i++) {
+            tallies[i] = tasks.get(i).join();
+        }
+        BigInteger total = combine(components, tallies, interior, remainingMines, probabilities);
+
+        if (interior > 0) {
+            double interiorProbability = interiorProbability(tallies, interior, remainingMines, total);
+            for (int index = 0; index < cellCount; index++) {
+                if (closed[index] && solver.isUnknown(index) && !frontier.get(index)) {
+                    probabilities[index] = interiorProbability;
+                }
+            }
+        }
+        return new MineProbabilities(board.getWidth(), probabilities, closed, total, components.size());
+    }
+
+    /**
+     * Regroupe les cases de la frontière en composantes reliées par des contraintes communes.
+     * Dans chaque composante, les cases soumises exactement aux mêmes contraintes forment un groupe
+     * énuméré par son nombre de mines ; les groupes sont ordonnés en largeur pour que l'élagage intervienne tôt.
+     */
+    private static List<Component> buildComponents(ConstraintSolver solver) {
+        int[] frontier = solver.getFrontier();
+        int size = frontier.length;
+        int[] buffer = new int[solver.getBoard().getTopology().getMaxDegree()];
+
+        // Contraintes touchant la frontière
+        List<Integer> constraintCells = new ArrayList<>();
+        BitSet seen = new BitSet();
+        for (int cell : frontier) {
+            int count = solver.neighbours(cell, buffer);
+            for (int i = 0; i < count; i++) {
+                int neighbour = buffer[i];
+                if (!seen.get(neighbour) && solver.isConstraint(neighbour)) {
+                    seen.set(neighbour);
+                    constraintCells.add(neighbour);
+                }
+            }
+        }
+
+        int constraintCount = constraintCells.size();
+        int[][] constraintMembers = new int[constraintCount][];
+        int[] required = new int[constraintCount];
+        int[] membership = new int[size];
+        for (int c = 0; c < constraintCount; c++) {
+            int constraint = constraintCells.get(c);
+            int count = solver.unknownNeighbours(constraint, buffer);
+            int[] members = new int[count];
+            for (int i = 0; i < count; i++) {
+                members[i] = Arrays.binarySearch(frontier, buffer[i]);
+                membership[members[i]]++;
+            }
+            constraintMembers[c] = members;
+            required[c] = solver.remainingMines(constraint);
+        }
+
+        // Contraintes de chaque case de la frontière, par ordre croissant
+        int[][] cellConstraints = new int[size][];
+        for (int i = 0; i < size; i++) {
+            cellConstraints[i] = new int[membership[i]];
+            membership[i] = 0;
+        }
+        for (int c = 0; c < constraintCount; c++) {
+            for (int member : constraintMembers[c]) {
+                cellConstraints[member][membership[member]++] = c;
+            }
+        }
+
+        List<Component> components = new ArrayList<>();
+        boolean[] visited = new boolean[size];
+        int[] localConstraint = new int[constraintCount];
+        Arrays.fill(localConstraint, -1);
+        int[] order = new int[size];
+        for (int start = 0; start < size; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            // Parcours en largeur de la composante
+            int head = 0;
+            int tail = 0;
+            order[tail++] = start;
+            visited[start] = true;
+            List<Integer> constraints = new ArrayList<>();
+            while (head < tail) {
+                int cell = order[head++];
+                for (int c : cellConstraints[cell]) {
+                    if (localConstraint[c] >= 0) {
+                        continue;
+                    }
+                    localConstraint[c] = constraints.size();
+                    constraints.add(c);
+                    for (int member : constraintMembers[c]) {
+                        if (!visited[member]) {
+                            visited[member] = true;
+                            order[tail++] = member;
+                        }
+                    }
+                }
+            }
+
+            // Groupes de cases de même signature, dans l'ordre de première apparition
+            Map<Signature, List<Integer>> groups = new LinkedHashMap<>();
+            for (int position = 0; position < tail; position++) {
+                int local = order[position];
+                groups.computeIfAbsent(new Signature(cellConstraints[local]), key -> new ArrayList<>())
+                        .add(frontier[local]);
+            }
+            int[][] groupCells = new int[groups.size()][];
+            int[][] groupConstraints = new int[groups.size()][];
+            int group = 0;
+            for (Map.Entry<Signature, List<Integer>> entry : groups.entrySet()) {
+                groupCells[group] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+                int[] global = entry.getKey().constraints();
+                groupConstraints[group] = new int[global.length];
+                for (int i = 0; i < global.length; i++) {
+                    groupConstraints[group][i] = localConstraint[global[i]];
+                }
+                group++;
+            }
+            int[] componentRequired = new int[constraints.size()];
+            int[] componentSizes = new int[constraints.size()];
+            for (int i = 0; i < componentRequired.length; i++) {
+                componentRequired[i] = required[constraints.get(i)];
+                componentSizes[i] = constraintMembers[constraints.get(i)].length;
+            }
+            components.add(new Component(groupCells, groupConstraints, componentRequired, componentSizes, tail));
+        }
+        return components;
+    }
+
+    /**
+     * Combine les comptes des composantes et écrit la probabilité de chaque case de la frontière.
+     *
+     * @return Le nombre total de placements compatibles.
+     */
+    private static BigInteger combine(List<Component> components, Tally[] tallies, int interior,
+                                      int remainingMines, double[] probabilities) {
+        BigInteger[] binomials = binomialRow(interior);
+        int count = components.size();
+
+        // Produits de convolution préfixes et suffixes des distributions de mines par composante
+        BigInteger[][] prefix = new BigInteger[count + 1][];
+        BigInteger[][] suffix = new BigInteger[count + 1][];
+        prefix[0] = new BigInteger[]{BigInteger.ONE};
+        suffix[count] = new BigInteger[]{BigInteger.ONE};
+        for (int c = 0; c < count; c++) {
+            prefix[c + 1] = convolve(prefix[c], tallies[c].distribution());
+        }
+        for (int c = count - 1; c >= 0; c--) {
+            suffix[c] = convolve(tallies[c].distribution(), suffix[c + 1]);
+        }
+
+        BigInteger total = BigInteger.ZERO;
+        BigInteger[] all = prefix[count];
+        for (int s = 0; s < all.length; s++) {
+            total = total.add(all[s].multiply(weight(binomials, remainingMines - s)));
+        }
+        if (total.signum() == 0) {
+            for (Component component : components) {
+                for (int[] group : component.groups) {
+                    for (int cell : group) {
+                        probabilities[cell] = Double.NaN;
+                    }
+                }
+            }
+            return total;
+        }
+
+        for (int c = 0; c < count; c++) {
+            BigInteger[] others = convolve(prefix[c], suffix[c + 1]);
+            Tally tally = tallies[c];
+            int[][] groups = components.get(c).groups;
+            BigInteger[] numerators = new BigInteger[groups.length];
+            Arrays.fill(numerators, BigInteger.ZERO);
+            for (int k = 0; k < tally.size(); k++) {
+                if (tally.count(k).signum() == 0) {
+                    continue;
+                }
+                BigInteger factor = BigInteger.ZERO;
+                for (int s = 0; s < others.length; s++) {
+                    factor = factor.add(others[s].multiply(weight(binomials, remainingMines - k - s)));
+                }
+                if (factor.signum() == 0) {
+                    continue;
+                }
+                for (int group = 0; group < groups.length; group++) {
+                    BigInteger cellCount = tally.cellCount(k, group);
+                    if (cellCount.signum() != 0) {
+                        numerators[group] = numerators[group].add(factor.multiply(cellCount));
+                    }
+                }
+            }
+            for (int group = 0; group < groups.length; group++) {
+                double probability = ratio(numerators[group], total);
+                for (int cell : groups[group]) {
+                    probabilities[cell] = probability;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Probabilité d'une case sans contrainte : espérance de (M - s) / I sur toutes les combinaisons.
+     */
+    private static double interiorProbability(Tally[] tallies, int interior, int remainingMines, BigInteger total) {
+        if (total.signum() == 0) {
+            return Double.NaN;
+        }
+        BigInteger[] binomials = binomialRow(interior);
+        BigInteger[] all = {BigInteger.ONE};
+        for (Tally tally : tallies) {
+            all = convolve(all, tally.distribution());
+        }
+        BigInteger numerator = BigInteger.ZERO;
+        for (int s = 0; s < all.length; s++) {
+            int left = remainingMines - s;
+            numerator = numerator.add(all[s].multiply(weight(binomials, left)).multiply(BigInteger.valueOf(left)));
+        }
+        return ratio(numerator, total.multiply(BigInteger.valueOf(interior)));
+    }
+
+    private static BigInteger[] binomialRow(int n) {
+        BigInteger[] row = new BigInteger[n + 1];
+        row[0] = BigInteger.ONE;
+        for (int r = 0; r < n; r++) {
+            row[r + 1] = row[r].multiply(BigInteger.valueOf(n - r)).divide(BigInteger.valueOf(r + 1));
+        }
+        return row;
+    }
+
+    private static BigInteger weight(BigInteger[] binomials, int mines) {
+        return mines < 0 || mines >= binomials.length ? BigInteger.ZERO : binomials[mines];
+    }
+
+    private static BigInteger[] convolve(BigInteger[] a, BigInteger[] b) {
+        BigInteger[] result = new BigInteger[a.length + b.length - 1];
+        Arrays.fill(result, BigInteger.ZERO);
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].signum() == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] = result[i + j].add(a[i].multiply(b[j]));
+            }
+        }
+        return result;
+    }
+
+    private static double ratio(BigInteger numerator, BigInteger denominator) {
+        return new BigDecimal(numerator).divide(new BigDecimal(denominator), MathContext.DECIMAL64).doubleValue();
+    }
+
+    /**
+     * Composante de la frontière : groupes de cases de même signature, dans l'ordre d'énumération,
+     * contraintes locales de chaque groupe, mines exigées et nombre de cases de chaque contrainte.
+     */
+    private record Component(int[][] groups, int[][] groupConstraints, int[] required, int[] sizes, int cellCount) {
+    }
+
+    /**
+     * Ensemble trié des contraintes d'une case, comparé par valeur.
+     */
+    private record Signature(int[] constraints) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Signature that && Arrays.equals(constraints, that.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(constraints);
+        }
+    }
+
+    /**
+     * Comptes d'une énumération, indexés par le nombre de mines placées dans la composante.
+     * {@code cellCounts[k][g]} est le nombre de solutions à k mines où une case donnée du groupe g est minée.
+     * Les comptes sont tenus en long, puis convertis une fois pour toutes en BigInteger dès que l'un d'eux
+     * ne tiendrait plus dans un long. Le nombre de solutions minant une case ne dépasse jamais le nombre
+     * de solutions : il suffit de surveiller ce dernier.
+     */
+    private static final class Tally {
+        private final long[] counts;
+        private final long[][] cellCounts;
+        private final int groups;
+
+        // Comptes exacts une fois sortis des long, ou null
+        private BigInteger[] wideCounts;
+        private BigInteger[][] wideCellCounts;
+
+        Tally(int cells, int groups) {
+            this.counts = new long[cells + 1];
+            this.cellCounts = new long[cells + 1][];
+            this.groups = groups;
+        }
+
+        /**
+         * Ajoute une affectation des groupes. Un groupe de s cases recevant m mines compte pour C(s, m) solutions,
+         * dont C(s - 1, m - 1) minent une case donnée du groupe.
+         */
+        void record(byte[] groupMines, int[][] groupCells, int mines, long weight) {
+            if (wideCounts != null || counts[mines] > Long.MAX_VALUE - weight) {
+                recordWide(groupMines, groupCells, mines, BigInteger.valueOf(weight));
+                return;
+            }
+            counts[mines] += weight;
+            long[] row = cellCounts[mines];
+            if (row == null) {
+                row = cellCounts[mines] = new long[groups];
+            }
+            for (int group = 0; group < groups; group++) {
+                int m = groupMines[group];
+                if (m > 0) {
+                    int s = groupCells[group].length;
+                    row[group] += weight / BINOMIALS[s][m] * BINOMIALS[s - 1][m - 1];
+                }
+            }
+        }
+
+        /**
+         * Ajoute une affectation dont le poids ne tient pas dans un long, comme {@link #record}.
+         */
+        void recordWide(byte[] groupMines, int[][] groupCells, int mines, BigInteger weight) {
+            widen();
+            wideCounts[mines] = wideCounts[mines].add(weight);
+            BigInteger[] row = wideRow(mines);
+            for (int group = 0; group < groups; group++) {
+                int m = groupMines[group];
+                if (m > 0) {
+                    int s = groupCells[group].length;
+                    row[group] = row[group].add(weight.divide(BigInteger.valueOf(BINOMIALS[s][m]))
+                            .multiply(BigInteger.valueOf(BINOMIALS[s - 1][m - 1])));
+                }
+            }
+        }
+
+        void add(Tally other) {
+            boolean overflow = wideCounts != null || other.wideCounts != null;
+            for (int k = 0; k < counts.length && !overflow; k++) {
+                overflow = counts[k] > Long.MAX_VALUE - other.counts[k];
+            }
+            if (overflow) {
+                widen();
+                for (int k = 0; k < counts.length; k++) {
+                    if (other.count(k).signum() == 0) {
+                        continue;
+                    }
+                    wideCounts[k] = wideCounts[k].add(other.count(k));
+                    BigInteger[] row = wideRow(k);
+                    for (int group = 0; group < groups; group++) {
+                        row[group] = row[group].add(other.cellCount(k, group));
+                    }
+                }
+                return;
+            }
+            for (int k = 0; k < counts.length; k++) {
+                if (other.counts[k] == 0) {
+                    continue;
+                }
+                counts[k] += other.counts[k];
+                long[] row = cellCounts[k];
+                if (row == null) {
+                    cellCounts[k] = other.cellCounts[k].clone();
+                } else {
+                    long[] source = other.cellCounts[k];
+                    for (int group = 0; group < row.length; group++) {
+                        row[group] += source[group];
+                    }
+                }
+            }
+        }
+
+        private void widen() {
+            if (wideCounts != null) {
+                return;
+            }
+            wideCounts = new BigInteger[counts.length];
+            wideCellCounts = new BigInteger[counts.length][];
+            for (int k = 0; k < counts.length; k++) {
+                wideCounts[k] = BigInteger.valueOf(counts[k]);
+                if (cellCounts[k] != null) {
+                    BigInteger[] row = wideRow(k);
+                    for (int group = 0; group < groups; group++) {
+                        row[group] = BigInteger.valueOf(cellCounts[k][group]);
+                    }
+                }
+            }
+        }
+
+        private BigInteger[] wideRow(int k) {
+            BigInteger[] row = wideCellCounts[k];
+            if (row == null) {
+                row = wideCellCounts[k] = new BigInteger[groups];
+                Arrays.fill(row, BigInteger.ZERO);
+            }
+            return row;
+        }
+
+        /**
+         * @return Le nombre de nombres de mines possibles, de 0 au nombre de cases de la composante.
+         */
+        int size() {
+            return counts.length;
+        }
+
+        /**
+         * @return Le nombre de solutions à k mines.
+         */
+        BigInteger count(int k) {
+            return wideCounts != null ? wideCounts[k] : BigInteger.valueOf(counts[k]);
+        }
+
+        /**
+         * @return Le nombre de solutions à k mines où une case donnée du groupe est minée.
+         */
+        BigInteger cellCount(int k, int group) {
+            if (wideCounts != null) {
+                return wideCellCounts[k] == null ? BigInteger.ZERO : wideCellCounts[k][group];
+            }
+            return cellCounts[k] == null ? BigInteger.ZERO : BigInteger.valueOf(cellCounts[k][group]);
+        }
+
+        BigInteger[] distribution() {
+            BigInteger[] distribution = new BigInteger[counts.length];
+            for (int k = 0; k < counts.length; k++) {
+                distribution[k] = count(k);
+            }
+            return distribution;
+        }
+    }
+
+    /**
+     * Énumère les affectations d'un sous-arbre de composante. Tant que le sous-arbre est grand,
+     * chaque nombre de mines possible du groupe courant est confié à une tâche disposant de son propre état.
+     */
+    private static final class EnumerationTask extends RecursiveTask<Tally> {
+        private final Component component;
+        private final int maxMines;
+        private final byte[] groupMines;
+        private final int[] mines;
+        private final int[] unassigned;
+        private final int group;
+        private final int placed;
+        private final long weight;
+        private final int depth;
+
+        EnumerationTask(Component component, int maxMines) {
+            this(component, maxMines, new byte[component.groups.length], new int[component.required.length],
+                    component.sizes.clone(), 0, 0, 1, 0);
+        }
+
+        private EnumerationTask(Component component, int maxMines, byte[] groupMines, int[] mines,
+                                int[] unassigned, int group, int placed, long weight, int depth) {
+            this.component = component;
+            this.maxMines = maxMines;
+            this.groupMines = groupMines;
+            this.mines = mines;
+            this.unassigned = unassigned;
+            this.group = group;
+            this.placed = placed;
+            this.weight = weight;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Tally compute() {
+            Tally tally = new Tally(component.cellCount, groupMines.length);
+            // Un poids qui sortirait des long est laissé à l'énumération séquentielle, qui sait passer en BigInteger
+            if (depth >= MAX_SPLIT_DEPTH || groupMines.length - group < SPLIT_MIN_REMAINING
+                    || weight > Long.MAX_VALUE / maxBinomial(component.groups[group].length)) {
+                enumerate(group, placed, weight, tally);
+                return tally;
+            }
+            int size = component.groups[group].length;
+            List<EnumerationTask> branches = new ArrayList<>(size + 1);
+            for (int m = 0; m <= size && placed + m <= maxMines; m++) {
+                EnumerationTask branch = new EnumerationTask(component, maxMines, groupMines.clone(), mines.clone(),
+                        unassigned.clone(), group + 1, placed + m, weight * BINOMIALS[size][m], depth + 1);
+                if (branch.assign(group, m)) {
+                    branches.add(branch);
+                }
+            }
+            for (int i = 1; i < branches.size(); i++) {
+                branches.get(i).fork();
+            }
+            if (!branches.isEmpty()) {
+                tally.add(branches.get(0).compute());
+            }
+            for (int i = 1; i < branches.size(); i++) {
+                tally.add(branches.get(i).join());
+            }
+            return tally;
+        }
+
+        private void enumerate(int group, int placed, long weight, Tally tally) {
+            if (group == groupMines.length) {
+                tally.record(groupMines, component.groups, placed, weight);
+                return;
+            }
+            int size = component.groups[group].length;
+            for (int m = 0; m <= size && placed + m <= maxMines; m++) {
+                if (assign(group, m)) {
+                    long binomial = BINOMIALS[size][m];
+                    if (weight > Long.MAX_VALUE / binomial) {
+                        enumerateWide(group + 1, placed + m,
+                                BigInteger.valueOf(weight).multiply(BigInteger.valueOf(binomial)), tally);
+                    } else {
+                        enumerate(group + 1, placed + m, weight * binomial, tally);
+                    }
+                }
+                unassign(group, m);
+            }
+        }
+
+        /**
+         * Poursuit l'énumération avec un poids qui ne tient plus dans un long.
+         */
+        private void enumerateWide(int group, int placed, BigInteger weight, Tally tally) {
+            if (group == groupMines.length) {
+                tally.recordWide(groupMines, component.groups, placed, weight);
+                return;
+            }
+            int size = component.groups[group].length;
+            for (int m = 0; m <= size && placed + m <= maxMines; m++) {
+                if (assign(group, m)) {
+                    enumerateWide(group + 1, placed + m, weight.multiply(BigInteger.valueOf(BINOMIALS[size][m])), tally);
+                }
+                unassign(group, m);
+            }
+        }
+
+        private static long maxBinomial(int size) {
+            return BINOMIALS[size][size / 2];
+        }
+
+        /**
+         * Place {@code count} mines dans le groupe et met à jour ses contraintes. Les compteurs sont toujours
+         * modifiés, même en cas d'échec, pour que {@link #unassign(int, int)} les rétablisse.
+         *
+         * @return false si une contrainte ne peut plus être satisfaite.
+         */
+        private boolean assign(int group, int count) {
+            groupMines[group] = (byte) count;
+            int size = component.groups[group].length;
+            boolean feasible = true;
+            for (int constraint : component.groupConstraints[group]) {
+                mines[constraint] += count;
+                unassigned[constraint] -= size;
+                int required = component.required[constraint];
+                if (mines[constraint] > required || mines[constraint] + unassigned[constraint] < required) {
+                    feasible = false;
+                }
+            }
+            return feasible;
+        }
+
+        private void unassign(int group, int count) {
+            groupMines[group] = 0;
+            int size = component.groups[group].length;
+            for (int constraint : component.groupConstraints[group]) {
+                mines[constraint] -= count;
+                unassigned[constraint] += size;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.storage;
+
+import org.example.models.Board;
+import org.example.models.Level;
+import org.example.models.Topology;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Format binaire de sauvegarde d'une partie.
+ * Le fichier commence par un en-tête (niveau, graine, temps écoulé) suivi d'un octet par case,
+ * dans l'ordre {@code y * width + x} : nombre de mines voisines sur 4 bits, puis un bit de mine,
+ * un bit d'ouverture et un bit de drapeau. C'est exactement la représentation mémoire de {@link Board},
+ * si bien que l'écriture et la lecture se résument à une copie en bloc dans un fichier projeté en mémoire.
+ *
+ * <pre>
+ * int    magic ("DMNR")
+ * short  version
+ * int    width, height, mineCount
+ * short  longueur du label, puis le label en UTF-8
+ * long   seed
+ * long   elapsedMillis
+ * byte[] cells (width * height)
+ * </pre>
+ */
+public final class BoardFile {
+
+    static final int MAGIC = 0x444D4E52;
+    static final short VERSION = 1;
+
+    // Longueur maximale du label en UTF-8, pour que sa longueur tienne dans un short positif
+    static final int MAX_LABEL_BYTES = Short.MAX_VALUE;
+
+    private BoardFile() {
+    }
+
+    /**
+     * Enregistre une partie dans un fichier, en remplaçant son contenu.
+     *
+     * @param path          Le fichier de destination.
+     * @param level         Le niveau de la partie.
+     * @param seed          La graine de la disposition des mines.
+     * @param elapsedMillis Le temps de jeu écoulé, en millisecondes.
+     * @param board         La grille à enregistrer.
+     * @throws IOException En cas d'erreur d'écriture, si la grille n'est pas une grille classique,
+     *                     le format ne conservant pas sa forme, ou si le label dépasse
+     *                     {@value #MAX_LABEL_BYTES} octets en UTF-8.
+     */
+    public static void save(Path path, Level level, long seed, long elapsedMillis, Board board) throws IOException {
+        if (board.getTopology().getKind() != Topology.Kind.SQUARE) {
+            throw new IOException("Only square boards can be saved: " + board.getTopology());
+        }
+        byte[] label = level.getLabel().getBytes(StandardCharsets.UTF_8);
+        if (label.length > MAX_LABEL_BYTES) {
+            throw new IOException("Level label too long: " + label.length + " bytes");
+        }
+        int headerSize = 4 + 2 + 3 * 4 + 2 + label.length + 8 + 8;
+        long size = headerSize + (long) board.getWidth() * board.getHeight();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Board too large for a single mapped file: " + size + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                    .putShort(VERSION)
+                    .putInt(board.getWidth())
+                    .putInt(board.getHeight())
+                    .putInt(board.getMineCount())
+                    .putShort((short) label.length)
+                    .put(label)
+                    .putLong(seed)
+                    .putLong(elapsedMillis);
+            board.writeCells(buffer);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Projette un fichier de sauvegarde en mémoire sans en copier le contenu.
+     * Les cases sont lues à la demande depuis la projection ; {@link SavedGame#toBoard()}
+     * permet ensuite de reprendre la partie.
+     *
+     * @param path Le fichier à lire.
+     * @return La partie enregistrée.
+     * @throws IOException En cas d'erreur de lecture ou si le fichier n'est pas une sauvegarde valide.
+     */
+    public static SavedGame map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 6 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a saved game: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported saved game version " + version);
+            }
+            int width;
+            int height;
+            int mineCount;
+            byte[] label;
+            long seed;
+            long elapsedMillis;
+            try {
+                width = buffer.getInt();
+                height = buffer.getInt();
+                mineCount = buffer.getInt();
+                int labelLength = Short.toUnsignedInt(buffer.getShort());
+                if (labelLength > buffer.remaining()) {
+                    throw new IOException("Truncated saved game header: " + path);
+                }
+                label = new byte[labelLength];
+                buffer.get(label);
+                seed = buffer.getLong();
+                elapsedMillis = buffer.getLong();
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated saved game header: " + path, e);
+            }
+            long cellCount = (long) width * height;
+            if (width <= 0 || height <= 0 || mineCount < 0 || mineCount > cellCount || buffer.remaining() != cellCount) {
+                throw new IOException("Corrupted saved game: " + path);
+            }
+
+            Level level = new Level(width, height, mineCount, new String(label, StandardCharsets.UTF_8));
+            ByteBuffer cells = buffer.slice();
+            return new SavedGame(level, seed, elapsedMillis, cells);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.storage;
+
+import org.example.models.Level;
+
+import java.util.Comparator;
+
+/**
+ * Résultat d'une partie terminée, tel qu'enregistré par un {@link ScoreStore}.
+ */
+public final class GameResult {
+
+    /**
+     * Ordre du classement : temps croissant, puis efficacité (3BV/s) décroissante, puis date croissante.
+     */
+    public static final Comparator<GameResult> RANKING = Comparator.comparingLong(GameResult::getElapsedMillis)
+            .thenComparing(Comparator.comparingDouble(GameResult::getThreeBVPerSecond).reversed())
+            .thenComparingLong(GameResult::getTimestamp);
+
+    private final Level level;
+    private final boolean won;
+    private final long elapsedMillis;
+    private final int threeBV;
+    private final long seed;
+    private final long timestamp;
+
+    /**
+     * @param level         Le niveau de la partie.
+     * @param won           true si la partie est gagnée.
+     * @param elapsedMillis Le temps de jeu, en millisecondes.
+     * @param threeBV       Le 3BV de la grille (voir {@link org.example.models.Board#getThreeBV()}).
+     * @param seed          La graine de la disposition des mines.
+     * @param timestamp     La date de fin de partie, en millisecondes depuis l'époque.
+     */
+    public GameResult(Level level, boolean won, long elapsedMillis, int threeBV, long seed, long timestamp) {
+        this.level = level;
+        this.won = won;
+        this.elapsedMillis = elapsedMillis;
+        this.threeBV = threeBV;
+        this.seed = seed;
+        this.timestamp = timestamp;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getThreeBV() {
+        return threeBV;
+    }
+
+    /**
+     * @return L'efficacité du joueur, en 3BV par seconde de jeu.
+     */
+    public double getThreeBVPerSecond() {
+        return elapsedMillis <= 0 ? 0 : threeBV * 1000.0 / elapsedMillis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s en %d ms, 3BV %d (%.2f/s), graine %d", level.getLabel(),
+                won ? "gagnée" : "perdue", elapsedMillis, threeBV, getThreeBVPerSecond(), seed);
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.storage;
+
+import org.example.models.Board;
+import org.example.models.Level;
+import org.example.models.MineLayoutGenerator;
+import org.example.models.RevealListener;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Relecture d'une partie enregistrée par un {@link MoveJournal}.
+ * La grille après n'importe quel coup est reconstruite en rejouant les coups depuis le point de reprise
+ * le plus proche : se déplacer dans la partie ne rejoue donc jamais plus de {@code snapshotInterval} coups.
+ * <p>
+ * Les points de reprise sont tous construits à la création, en rejouant la partie une seule fois.
+ * Seul l'état initial des cases est copié en entier ; chaque point suivant ne garde que les cases modifiées
+ * depuis le précédent et leur nouvel état, soit 5 octets par case modifiée. La mémoire occupée est ainsi
+ * proportionnelle aux cases modifiées pendant la partie, et non au nombre de coups multiplié par la taille
+ * de la grille. Seul l'intervalle où le premier clic replace les mines est copié en entier, toutes les cases
+ * pouvant y changer. Une relecture construite n'est plus modifiée et peut être partagée entre threads.
+ */
+public class JournalReplay {
+
+    /**
+     * Intervalle par défaut entre deux points de reprise, en nombre de coups.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 1024;
+
+    private static final RevealListener IGNORE = index -> {
+    };
+
+    private final RecordedGame game;
+    private final MineLayoutGenerator mineLayoutGenerator;
+    private final int snapshotInterval;
+
+    // Point de reprise k : état des cases après k * snapshotInterval coups, par différence avec le point k - 1
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    // Rang du coup qui place les mines (premier clic), ou -1 si elles sont placées dès le départ
+    private final int placementMove;
+
+    /**
+     * Prépare la relecture d'une partie.
+     *
+     * @param game                La partie enregistrée.
+     * @param mineLayoutGenerator Le générateur qui a placé les mines de la partie.
+     * @param snapshotInterval    Le nombre de coups entre deux points de reprise.
+     * @throws IllegalArgumentException Si l'intervalle n'est pas strictement positif.
+     */
+    public JournalReplay(RecordedGame game, MineLayoutGenerator mineLayoutGenerator, int snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.game = game;
+        this.mineLayoutGenerator = mineLayoutGenerator;
+        this.snapshotInterval = snapshotInterval;
+        this.placementMove = game.getLayoutMode() == MoveJournal.LAYOUT_FIXED ? -1 : firstReveal(game);
+
+        Level level = game.getLevel();
+        Board board = new Board(level.getWidth(), level.getHeight(), mineLayoutGenerator.generate(level, game.getSeed()));
+        checkpoints.add(Checkpoint.full(board));
+        ChangeLog changes = new ChangeLog();
+        boolean placed = false;
+        for (int move = 0; move < game.getMoveCount(); move++) {
+            placed |= move == placementMove;
+            if (game.isFlag(move)) {
+                changes.fieldRevealed(game.getCell(move));
+            }
+            apply(board, move, changes);
+            if ((move + 1) % snapshotInterval == 0) {
+                checkpoints.add(placed ? Checkpoint.full(board) : changes.checkpoint(board));
+                changes.clear();
+                placed = false;
+            }
+        }
+    }
+
+    /**
+     * État des cases à un point de reprise : les cases {@code indices} prennent l'état {@code cells},
+     * ou toutes les cases si {@code indices} est null.
+     */
+    private record Checkpoint(int[] indices, byte[] cells) {
+
+        static Checkpoint full(Board board) {
+            byte[] cells = new byte[board.getCellCount()];
+            board.writeCells(ByteBuffer.wrap(cells));
+            return new Checkpoint(null, cells);
+        }
+
+        void applyTo(byte[] target) {
+            if (indices == null) {
+                System.arraycopy(cells, 0, target, 0, cells.length);
+                return;
+            }
+            for (int i = 0; i < indices.length; i++) {
+                target[indices[i]] = cells[i];
+            }
+        }
+    }
+
+    /**
+     * Cases modifiées depuis le dernier point de reprise, dans un ordre quelconque et avec doublons éventuels.
+     */
+    private static final class ChangeLog implements RevealListener {
+
+        private int[] changed = new int[64];
+        private int changedCount;
+
+        // État complet des cases, réutilisé d'un point de reprise à l'autre
+        private ByteBuffer state;
+
+        @Override
+        public void fieldRevealed(int index) {
+            if (changedCount == changed.length) {
+                changed = Arrays.copyOf(changed, 2 * changed.length);
+            }
+            changed[changedCount++] = index;
+        }
+
+        Checkpoint checkpoint(Board board) {
+            Arrays.sort(changed, 0, changedCount);
+            int count = 0;
+            for (int i = 0; i < changedCount; i++) {
+                if (count == 0 || changed[i] != changed[count - 1]) {
+                    changed[count++] = changed[i];
+                }
+            }
+            int[] indices = Arrays.copyOf(changed, count);
+            byte[] cells = new byte[count];
+            if (state == null) {
+                state = ByteBuffer.allocate(board.getCellCount());
+            }
+            board.writeCells(state.clear());
+            for (int i = 0; i < count; i++) {
+                cells[i] = state.get(indices[i]);
+            }
+            return new Checkpoint(indices, cells);
+        }
+
+        void clear() {
+            changedCount = 0;
+        }
+    }
+
+    private static int firstReveal(RecordedGame game) {
+        for (int move = 0; move < game.getMoveCount(); move++) {
+            if (!game.isFlag(move)) {
+                return move;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return La partie relue.
+     */
+    public RecordedGame getGame() {
+        return game;
+    }
+
+    /**
+     * Reconstruit la grille après les {@code moves} premiers coups.
+     *
+     * @param moves Le nombre de coups à appliquer, entre 0 et {@link RecordedGame#getMoveCount()}.
+     * @return Une nouvelle grille, indépendante de la relecture.
+     * @throws IndexOutOfBoundsException Si le nombre de coups est hors de la partie.
+     */
+    public Board boardAt(int moves) {
+        if (moves < 0 || moves > game.getMoveCount()) {
+            throw new IndexOutOfBoundsException("Move " + moves + " out of [0, " + game.getMoveCount() + "]");
+        }
+        int checkpoint = moves / snapshotInterval;
+        // Les différences s'appliquent depuis le dernier point copié en entier
+        int from = checkpoint;
+        while (checkpoints.get(from).indices() != null) {
+            from--;
+        }
+        byte[] cells = checkpoints.get(from).cells().clone();
+        for (int k = from + 1; k <= checkpoint; k++) {
+            checkpoints.get(k).applyTo(cells);
+        }
+        Level level = game.getLevel();
+        Board board = Board.fromCells(level.getWidth(), level.getHeight(), ByteBuffer.wrap(cells));
+        for (int move = checkpoint * snapshotInterval; move < moves; move++) {
+            apply(board, move, IGNORE);
+        }
+        return board;
+    }
+
+    /**
+     * @return La grille en fin de partie.
+     */
+    public Board finalBoard() {
+        return boardAt(game.getMoveCount());
+    }
+
+    private void apply(Board board, int move, RevealListener listener) {
+        int index = game.getCell(move);
+        int x = board.xOf(index);
+        int y = board.yOf(index);
+        if (game.isFlag(move)) {
+            board.flagField(x, y);
+            return;
+        }
+        if (move == placementMove) {
+            placeMines(board, x, y);
+        }
+        board.revealFields(x, y, listener);
+    }
+
+    /**
+     * Replace les mines au premier clic comme l'a fait la partie, en conservant les drapeaux déjà posés.
+     */
+    private void placeMines(Board board, int x, int y) {
+        Level level = game.getLevel();
+        board.replaceMines(mineLayoutGenerator.generateSafe(level.getWidth(), level.getHeight(), level.getMineCount(),
+                game.getSeed(), x, y));
+    }
+}
@@ -0,0 +1,225 @@
+package org.example.storage;
+
+import org.example.models.Level;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Journal binaire des coups d'une partie, en ajout seul.
+ * Avec la graine et le mode de placement des mines de l'en-tête, il suffit à reconstruire la partie
+ * coup par coup (voir {@link RecordedGame} et {@link JournalReplay}).
+ * <p>
+ * Chaque coup occupe deux entiers de taille variable (7 bits par octet, bit de poids fort de continuation) :
+ * le délai en nanosecondes depuis le coup précédent (ou depuis l'ouverture du journal), puis
+ * {@code (indice << 1) | type}. Un coup tient ainsi en 4 à 8 octets. Les coups sont accumulés dans
+ * un tampon et écrits par blocs ; {@link #flush()} les rend visibles dans le fichier. Un journal tronqué
+ * par un arrêt brutal se relit jusqu'au dernier coup complet.
+ *
+ * <pre>
+ * int    magic ("DMNJ")
+ * short  version
+ * int    width, height, mineCount
+ * short  longueur du label, puis le label en UTF-8
+ * long   seed
+ * byte   mode de placement des mines
+ * long   date d'ouverture du journal (millisecondes depuis l'époque)
+ * puis, pour chaque coup : varint délai, varint (indice << 1 | type)
+ * </pre>
+ */
+public class MoveJournal implements Closeable {
+
+    static final int MAGIC = 0x444D4E4A;
+    static final short VERSION = 1;
+
+    /**
+     * Les mines sont placées à la création de la partie par {@code generate(level, seed)}.
+     */
+    public static final byte LAYOUT_FIXED = 0;
+
+    /**
+     * Les mines sont placées au premier clic par {@code generateSafe(..., seed, x, y)}.
+     */
+    public static final byte LAYOUT_FIRST_CLICK = 1;
+
+    /**
+     * Comme {@link #LAYOUT_FIRST_CLICK}, avec un générateur de grilles résolubles sans hasard.
+     */
+    public static final byte LAYOUT_FIRST_CLICK_NO_GUESS = 2;
+
+    static final int MOVE_REVEAL = 0;
+    static final int MOVE_FLAG = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Longueur maximale du libellé du niveau, écrite sur 2 octets non signés
+    static final int MAX_LABEL_BYTES = 0xFFFF;
+
+    // Taille maximale d'un coup encodé : deux varints de 64 bits
+    private static final int MAX_RECORD_SIZE = 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final long layoutModeOffset;
+    private long lastNanos;
+    private int moveCount;
+
+    private MoveJournal(FileChannel channel, long layoutModeOffset) {
+        this.channel = channel;
+        this.layoutModeOffset = layoutModeOffset;
+        this.lastNanos = System.nanoTime();
+    }
+
+    /**
+     * Crée un journal vide, en remplaçant le fichier s'il existe.
+     *
+     * @param path       Le fichier du journal.
+     * @param level      Le niveau de la partie.
+     * @param seed       La graine de la disposition des mines.
+     * @param layoutMode Le mode de placement des mines, par exemple {@link #LAYOUT_FIRST_CLICK}.
+     * @return Le journal ouvert en écriture.
+     * @throws IOException              En cas d'erreur d'écriture.
+     * @throws IllegalArgumentException Si le libellé du niveau dépasse {@value #MAX_LABEL_BYTES} octets en UTF-8.
+     */
+    public static MoveJournal create(Path path, Level level, long seed, byte layoutMode) throws IOException {
+        byte[] label = level.getLabel().getBytes(StandardCharsets.UTF_8);
+        if (label.length > MAX_LABEL_BYTES) {
+            throw new IllegalArgumentException("Level label too long: " + label.length + " bytes");
+        }
+        ByteBuffer header = ByteBuffer.allocate(4 + 2 + 3 * 4 + 2 + label.length + 8 + 1 + 8);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putInt(level.getWidth())
+                .putInt(level.getHeight())
+                .putInt(level.getMineCount())
+                .putShort((short) label.length)
+                .put(label)
+                .putLong(seed);
+        long layoutModeOffset = header.position();
+        header.put(layoutMode)
+                .putLong(System.currentTimeMillis())
+                .flip();
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new MoveJournal(channel, layoutModeOffset);
+    }
+
+    /**
+     * Enregistre l'ouverture d'une case.
+     *
+     * @param index L'indice {@code y * width + x} de la case.
+     * @throws IOException Si le tampon plein ne peut pas être écrit.
+     */
+    public void reveal(int index) throws IOException {
+        append(MOVE_REVEAL, index, System.nanoTime());
+    }
+
+    /**
+     * Enregistre la pose ou le retrait d'un drapeau.
+     *
+     * @param index L'indice {@code y * width + x} de la case.
+     * @throws IOException Si le tampon plein ne peut pas être écrit.
+     */
+    public void flag(int index) throws IOException {
+        append(MOVE_FLAG, index, System.nanoTime());
+    }
+
+    private void append(int type, int index, long nanos) throws IOException {
+        if (buffer.remaining() < MAX_RECORD_SIZE) {
+            flush();
+        }
+        putVarLong(buffer, Math.max(0, nanos - lastNanos));
+        putVarLong(buffer, ((long) index << 1) | type);
+        lastNanos = nanos;
+        moveCount++;
+    }
+
+    /**
+     * Corrige le mode de placement des mines de l'en-tête, lorsqu'il n'est connu qu'au premier clic.
+     *
+     * @param layoutMode Le mode de placement.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public void setLayoutMode(byte layoutMode) throws IOException {
+        ByteBuffer mode = ByteBuffer.allocate(1).put(0, layoutMode);
+        channel.write(mode, layoutModeOffset);
+    }
+
+    /**
+     * Écrit dans le fichier les coups encore en tampon.
+     *
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Écrit les coups en tampon et attend qu'ils soient sur le disque.
+     *
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    /**
+     * @return Le nombre de coups enregistrés depuis l'ouverture du journal.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    static void putVarLong(ByteBuffer target, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    /**
+     * Lit un entier de taille variable.
+     *
+     * @throws java.nio.BufferUnderflowException Si l'entier est tronqué.
+     */
+    static long getVarLong(ByteBuffer source) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = source.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0 && shift < 64);
+        return value;
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.storage;
+
+import org.example.models.Level;
+import org.example.models.MineLayoutGenerator;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Partie relue depuis un {@link MoveJournal} : en-tête et liste des coups décodés.
+ * Les coups sont rangés dans des tableaux d'entiers pour qu'une partie de plusieurs centaines
+ * de milliers de coups se décode et se rejoue en quelques millisecondes.
+ */
+public class RecordedGame {
+
+    private final Level level;
+    private final long seed;
+    private final byte layoutMode;
+    private final long startEpochMillis;
+    private final int[] moves;
+    private final long[] nanos;
+    private final int moveCount;
+    private final boolean truncated;
+
+    private RecordedGame(Level level, long seed, byte layoutMode, long startEpochMillis, int[] moves, long[] nanos,
+                         int moveCount, boolean truncated) {
+        this.level = level;
+        this.seed = seed;
+        this.layoutMode = layoutMode;
+        this.startEpochMillis = startEpochMillis;
+        this.moves = moves;
+        this.nanos = nanos;
+        this.moveCount = moveCount;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Lit un journal. Un dernier coup incomplet, laissé par un arrêt brutal, est ignoré.
+     *
+     * @param path Le fichier du journal.
+     * @return La partie enregistrée.
+     * @throws IOException En cas d'erreur de lecture ou si le fichier n'est pas un journal valide.
+     */
+    public static RecordedGame read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 6 || buffer.getInt() != MoveJournal.MAGIC) {
+                throw new IOException("Not a move journal: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != MoveJournal.VERSION) {
+                throw new IOException("Unsupported move journal version " + version);
+            }
+            Level level;
+            long seed;
+            byte layoutMode;
+            long startEpochMillis;
+            try {
+                int width = buffer.getInt();
+                int height = buffer.getInt();
+                int mineCount = buffer.getInt();
+                int labelLength = Short.toUnsignedInt(buffer.getShort());
+                if (labelLength > buffer.remaining()) {
+                    throw new IOException("Truncated move journal header: " + path);
+                }
+                byte[] label = new byte[labelLength];
+                buffer.get(label);
+                seed = buffer.getLong();
+                layoutMode = buffer.get();
+                startEpochMillis = buffer.getLong();
+                if (width <= 0 || height <= 0 || mineCount < 0 || mineCount > (long) width * height) {
+                    throw new IOException("Corrupted move journal: " + path);
+                }
+                level = new Level(width, height, mineCount, new String(label, StandardCharsets.UTF_8));
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated move journal header: " + path, e);
+            }
+
+            // Au moins deux octets par coup : la taille du fichier borne le nombre de coups
+            int capacity = Math.max(16, buffer.remaining() / 2);
+            int[] moves = new int[capacity];
+            long[] nanos = new long[capacity];
+            int count = 0;
+            long elapsed = 0;
+            boolean truncated = false;
+            while (buffer.hasRemaining()) {
+                int mark = buffer.position();
+                try {
+                    long delay = MoveJournal.getVarLong(buffer);
+                    long move = MoveJournal.getVarLong(buffer);
+                    elapsed += delay;
+                    moves[count] = (int) move;
+                    nanos[count] = elapsed;
+                    count++;
+                } catch (BufferUnderflowException e) {
+                    buffer.position(mark);
+                    truncated = true;
+                    break;
+                }
+            }
+            return new RecordedGame(level, seed, layoutMode, startEpochMillis, moves, nanos, count, truncated);
+        }
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return Le mode de placement des mines, par exemple {@link MoveJournal#LAYOUT_FIRST_CLICK}.
+     */
+    public byte getLayoutMode() {
+        return layoutMode;
+    }
+
+    /**
+     * @return La date d'ouverture du journal, en millisecondes depuis l'époque.
+     */
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @return true si le journal se terminait par un coup incomplet.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return L'indice de la case visée par le coup de rang {@code move}.
+     */
+    public int getCell(int move) {
+        return moves[checkMove(move)] >>> 1;
+    }
+
+    /**
+     * @return true si le coup de rang {@code move} pose ou retire un drapeau.
+     */
+    public boolean isFlag(int move) {
+        return (moves[checkMove(move)] & 1) == MoveJournal.MOVE_FLAG;
+    }
+
+    /**
+     * @return Le temps écoulé entre l'ouverture du journal et le coup de rang {@code move}, en nanosecondes.
+     */
+    public long getElapsedNanos(int move) {
+        return nanos[checkMove(move)];
+    }
+
+    /**
+     * Prépare la relecture de la partie.
+     *
+     * @param mineLayoutGenerator Le générateur qui a placé les mines : celui par défaut, ou un générateur
+     *                            sans hasard pour le mode {@link MoveJournal#LAYOUT_FIRST_CLICK_NO_GUESS}.
+     * @return La relecture, avec un point de reprise tous les {@link JournalReplay#DEFAULT_SNAPSHOT_INTERVAL} coups.
+     */
+    public JournalReplay replay(MineLayoutGenerator mineLayoutGenerator) {
+        return new JournalReplay(this, mineLayoutGenerator, JournalReplay.DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    private int checkMove(int move) {
+        return Objects.checkIndex(move, moveCount);
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.example.storage;
+
+import org.example.models.Board;
+import org.example.models.Level;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Partie enregistrée, telle que projetée en mémoire par {@link BoardFile#map(java.nio.file.Path)}.
+ * Les cases restent dans la projection du fichier : les accesseurs les lisent à la demande,
+ * sans copie sur le tas, et seule {@link #toBoard()} recopie l'état dans une nouvelle grille.
+ */
+public class SavedGame {
+
+    private static final int COUNT_MASK = 0x0F;
+    private static final int MINE = 0x10;
+    private static final int OPENED = 0x20;
+    private static final int FLAG = 0x40;
+
+    private final Level level;
+    private final long seed;
+    private final long elapsedMillis;
+    private final ByteBuffer cells;
+
+    SavedGame(Level level, long seed, long elapsedMillis, ByteBuffer cells) {
+        this.level = level;
+        this.seed = seed;
+        this.elapsedMillis = elapsedMillis;
+        this.cells = cells;
+    }
+
+    /**
+     * @return Le niveau de la partie (dimensions, nombre de mines et label).
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return La graine de la disposition des mines.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return Le temps de jeu écoulé au moment de l'enregistrement, en millisecondes.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean hasMine(int x, int y) {
+        return (cell(x, y) & MINE) != 0;
+    }
+
+    public boolean isOpened(int x, int y) {
+        return (cell(x, y) & OPENED) != 0;
+    }
+
+    public boolean hasFlag(int x, int y) {
+        return (cell(x, y) & FLAG) != 0;
+    }
+
+    public int getNeighbourMineCount(int x, int y) {
+        return cell(x, y) & COUNT_MASK;
+    }
+
+    /**
+     * Reconstruit une grille jouable à partir de l'état enregistré, par une copie en bloc.
+     *
+     * @return Une nouvelle grille, indépendante du fichier.
+     */
+    public Board toBoard() {
+        return Board.fromCells(level.getWidth(), level.getHeight(), cells.duplicate());
+    }
+
+    private int cell(int x, int y) {
+        if (x < 0 || x >= level.getWidth() || y < 0 || y >= level.getHeight()) {
+            throw new IndexOutOfBoundsException("(" + x + "/" + y + ")");
+        }
+        return cells.get(y * level.getWidth() + x);
+    }
+}
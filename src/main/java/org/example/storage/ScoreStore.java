@@ -0,0 +1,567 @@
+package org.example.storage;
+
+import org.example.models.Level;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Classement local des parties terminées, par niveau.
+ * <p>
+ * Les résultats sont ajoutés à la fin d'un journal binaire par un thread d'écriture dédié :
+ * {@link #record(GameResult)} ne fait que les mettre en file et ne bloque jamais l'appelant, ce qui permet
+ * d'enregistrer des millions de parties depuis des simulations comme depuis l'interface graphique.
+ * En mémoire, chaque niveau garde ses compteurs de parties et un tas borné de ses meilleures victoires,
+ * si bien que {@link #top(Level, int)} répond sans lire le disque.
+ * <p>
+ * Lorsque le journal a reçu {@value #COMPACTION_THRESHOLD} résultats depuis la dernière compaction, le thread
+ * d'écriture le réécrit avec une synthèse par niveau (parties et victoires) suivie des seules victoires classées,
+ * puis remplace l'ancien fichier par un renommage atomique. À l'ouverture, la lecture s'arrête à la première
+ * entrée incomplète ou corrompue, laissée par un arrêt brutal, et le fichier est tronqué à cet endroit.
+ *
+ * <pre>
+ * int    magic ("DMNS")
+ * short  version
+ * puis, pour chaque entrée :
+ * int    longueur du contenu
+ * byte   type (1 : résultat, 2 : synthèse)
+ * short  longueur du label, puis le label en UTF-8
+ * int    width, height, mineCount
+ * résultat : byte gagnée, long elapsedMillis, int 3BV, long seed, long timestamp
+ * synthèse : long parties, long victoires
+ * int    CRC32 du contenu
+ * </pre>
+ */
+public class ScoreStore implements Closeable {
+
+    static final int MAGIC = 0x444D4E53;
+    static final short VERSION = 1;
+
+    /**
+     * Nombre de victoires conservées par niveau, par défaut.
+     */
+    public static final int DEFAULT_CAPACITY = 100;
+
+    // Nombre de résultats ajoutés au journal au-delà duquel il est compacté
+    static final int COMPACTION_THRESHOLD = 1 << 16;
+
+    private static final byte RESULT = 1;
+    private static final byte SUMMARY = 2;
+    private static final int HEADER_SIZE = 4 + 2;
+
+    // Longueur maximale du label en UTF-8, écrite sur 2 octets non signés
+    static final int MAX_LABEL_BYTES = 0xFFFF;
+
+    // Nombre maximal de résultats écrits en un seul appel système
+    private static final int MAX_BATCH = 4096;
+
+    // Demandes adressées au thread d'écriture, reconnues par identité dans la file
+    private static final GameResult COMPACT = new GameResult(null, false, 0, 0, 0, 0);
+    private static final GameResult CLOSE = new GameResult(null, false, 0, 0, 0, 0);
+
+    private final Path path;
+    private final int capacity;
+    private final ConcurrentHashMap<String, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+    private final BlockingQueue<GameResult> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    // État propre au thread d'écriture
+    private FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private long appendedSinceCompaction;
+
+    // Nombre de résultats mis en file et traités, protégés par le verrou de l'objet
+    private long enqueued;
+    private long processed;
+    private boolean closed;
+
+    /**
+     * Ouvre un classement avec {@link #DEFAULT_CAPACITY} victoires par niveau.
+     *
+     * @see #open(Path, int)
+     */
+    public static ScoreStore open(Path path) throws IOException {
+        return open(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Ouvre un classement, en créant le fichier s'il n'existe pas. Le journal est relu en entier pour
+     * reconstruire les classements en mémoire : l'appel est proportionnel à la taille du fichier.
+     *
+     * @param path     Le fichier du journal.
+     * @param capacity Le nombre de victoires conservées par niveau.
+     * @return Le classement ouvert, dont le thread d'écriture est démarré.
+     * @throws IOException En cas d'erreur de lecture ou si le fichier n'est pas un classement valide.
+     */
+    public static ScoreStore open(Path path, int capacity) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        ScoreStore store = new ScoreStore(path, capacity);
+        store.load();
+        store.writer.start();
+        return store;
+    }
+
+    private ScoreStore(Path path, int capacity) {
+        this.path = path;
+        this.capacity = capacity;
+        this.writer = Thread.ofPlatform().name("score-store").daemon(true).unstarted(this::writeLoop);
+    }
+
+    /**
+     * Enregistre un résultat. Le résultat est écrit et pris en compte dans les classements
+     * peu après, par le thread d'écriture.
+     *
+     * @param result Le résultat d'une partie terminée.
+     * @throws IllegalStateException    Si le classement est fermé.
+     * @throws IllegalArgumentException Si le label du niveau dépasse {@value #MAX_LABEL_BYTES} octets en UTF-8.
+     */
+    public void record(GameResult result) {
+        int labelBytes = result.getLevel().getLabel().getBytes(StandardCharsets.UTF_8).length;
+        if (labelBytes > MAX_LABEL_BYTES) {
+            throw new IllegalArgumentException("Level label too long: " + labelBytes + " bytes");
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Score store is closed");
+            }
+            enqueued++;
+        }
+        queue.add(result);
+    }
+
+    /**
+     * Retourne les meilleures victoires d'un niveau, dans l'ordre de {@link GameResult#RANKING}.
+     *
+     * @param level Le niveau, reconnu par son label et ses dimensions.
+     * @param count Le nombre maximal de victoires, borné par la capacité du classement.
+     * @return Les victoires classées, éventuellement vide.
+     */
+    public List<GameResult> top(Level level, int count) {
+        Leaderboard leaderboard = leaderboards.get(keyOf(level));
+        return leaderboard == null ? List.of() : leaderboard.top(count);
+    }
+
+    /**
+     * @return Le nombre de parties enregistrées pour un niveau.
+     */
+    public long getGameCount(Level level) {
+        Leaderboard leaderboard = leaderboards.get(keyOf(level));
+        return leaderboard == null ? 0 : leaderboard.games();
+    }
+
+    /**
+     * @return Le nombre de victoires enregistrées pour un niveau.
+     */
+    public long getWinCount(Level level) {
+        Leaderboard leaderboard = leaderboards.get(keyOf(level));
+        return leaderboard == null ? 0 : leaderboard.wins();
+    }
+
+    /**
+     * @return Les niveaux pour lesquels au moins une partie est enregistrée.
+     */
+    public List<Level> getLevels() {
+        List<Level> levels = new ArrayList<>();
+        for (Leaderboard leaderboard : leaderboards.values()) {
+            levels.add(leaderboard.level);
+        }
+        return levels;
+    }
+
+    /**
+     * Attend que tous les résultats déjà enregistrés soient écrits et pris en compte dans les classements.
+     *
+     * @throws InterruptedException Si l'attente est interrompue.
+     */
+    public void flush() throws InterruptedException {
+        synchronized (this) {
+            long target = enqueued;
+            while (processed < target && writer.isAlive()) {
+                wait();
+            }
+        }
+    }
+
+    /**
+     * Demande une compaction du journal, faite en arrière-plan après les résultats déjà en file.
+     */
+    public void compact() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        queue.add(COMPACT);
+    }
+
+    /**
+     * Écrit les résultats en attente puis ferme le journal.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        queue.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the score store", e);
+        }
+    }
+
+    private void writeLoop() {
+        List<GameResult> batch = new ArrayList<>(MAX_BATCH);
+        boolean running = true;
+        try {
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                boolean compactionRequested = false;
+                int results = 0;
+                for (GameResult result : batch) {
+                    if (result == CLOSE) {
+                        running = false;
+                    } else if (result == COMPACT) {
+                        compactionRequested = true;
+                    } else {
+                        results++;
+                    }
+                }
+                // Un lot en erreur est abandonné, mais compté comme traité pour ne pas bloquer flush()
+                try {
+                    writeBatch(batch, compactionRequested);
+                } catch (RuntimeException e) {
+                    System.err.println("Scores not recorded: " + e);
+                } finally {
+                    batch.clear();
+                    synchronized (this) {
+                        processed += results;
+                        notifyAll();
+                    }
+                }
+            }
+        } finally {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Score log not closed: " + e.getMessage());
+            }
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Ajoute un lot de résultats au journal et aux classements, puis compacte le journal si nécessaire.
+     * Un lot dont l'écriture échoue est retiré du journal et n'entre pas dans les classements : les classements
+     * en mémoire restent ceux que la prochaine ouverture relira.
+     */
+    private void writeBatch(List<GameResult> batch, boolean compactionRequested) {
+        int results = 0;
+        buffer.clear();
+        for (GameResult result : batch) {
+            if (result != CLOSE && result != COMPACT) {
+                putResult(result);
+                results++;
+            }
+        }
+        if (!append(results)) {
+            return;
+        }
+        for (GameResult result : batch) {
+            if (result != CLOSE && result != COMPACT) {
+                leaderboardOf(result.getLevel()).add(result);
+            }
+        }
+        appendedSinceCompaction += results;
+
+        if (compactionRequested || appendedSinceCompaction >= COMPACTION_THRESHOLD) {
+            try {
+                compactNow();
+            } catch (IOException e) {
+                // Nouvelle tentative après un autre seuil de résultats, et non à chaque lot
+                appendedSinceCompaction = 0;
+                System.err.println("Score log not compacted: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Écrit le tampon à la fin du journal. En cas d'échec, le journal est tronqué à sa fin précédente :
+     * une entrée écrite à moitié arrêterait la relecture et ferait perdre les résultats ajoutés ensuite.
+     *
+     * @return true si le tampon a été écrit en entier.
+     */
+    private boolean append(int results) {
+        long end = -1;
+        try {
+            end = channel.position();
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Scores not written, " + results + " results dropped: " + e.getMessage());
+            if (end >= 0) {
+                try {
+                    channel.truncate(end);
+                    channel.position(end);
+                } catch (IOException truncation) {
+                    System.err.println("Score log not restored: " + truncation.getMessage());
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Relit le journal, reconstruit les classements et ouvre le fichier pour y ajouter les résultats suivants.
+     */
+    private void load() throws IOException {
+        long validEnd = HEADER_SIZE;
+        long entries = 0;
+        if (Files.exists(path) && Files.size(path) > 0) {
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                if (mapped.remaining() < HEADER_SIZE || mapped.getInt() != MAGIC) {
+                    throw new IOException("Not a score store: " + path);
+                }
+                short version = mapped.getShort();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported score store version " + version);
+                }
+                CRC32 crc = new CRC32();
+                while (mapped.remaining() >= 4) {
+                    int length = mapped.getInt();
+                    if (length <= 0 || length > mapped.remaining() - 4) {
+                        break;
+                    }
+                    ByteBuffer entry = mapped.slice(mapped.position(), length);
+                    crc.reset();
+                    crc.update(entry.duplicate());
+                    if ((int) crc.getValue() != mapped.getInt(mapped.position() + length)) {
+                        break;
+                    }
+                    try {
+                        readEntry(entry);
+                    } catch (BufferUnderflowException | IllegalArgumentException e) {
+                        break;
+                    }
+                    mapped.position(mapped.position() + length + 4);
+                    validEnd = mapped.position();
+                    entries++;
+                }
+            }
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip();
+            channel.write(header, 0);
+        }
+        // Une fin de fichier illisible est abandonnée : les ajouts suivants la remplacent
+        channel.truncate(validEnd);
+        channel.position(validEnd);
+        appendedSinceCompaction = entries;
+    }
+
+    private void readEntry(ByteBuffer entry) {
+        byte type = entry.get();
+        int labelLength = Short.toUnsignedInt(entry.getShort());
+        if (labelLength > entry.remaining()) {
+            throw new IllegalArgumentException("Corrupted score entry label");
+        }
+        byte[] label = new byte[labelLength];
+        entry.get(label);
+        Level level = new Level(entry.getInt(), entry.getInt(), entry.getInt(), new String(label, StandardCharsets.UTF_8));
+        if (type == RESULT) {
+            boolean won = entry.get() != 0;
+            long elapsedMillis = entry.getLong();
+            int threeBV = entry.getInt();
+            long seed = entry.getLong();
+            long timestamp = entry.getLong();
+            leaderboardOf(level).add(new GameResult(level, won, elapsedMillis, threeBV, seed, timestamp));
+        } else if (type == SUMMARY) {
+            leaderboardOf(level).addSummary(entry.getLong(), entry.getLong());
+        } else {
+            throw new IllegalArgumentException("Unknown score entry type " + type);
+        }
+    }
+
+    /**
+     * Réécrit le journal avec une synthèse et les victoires classées de chaque niveau, puis remplace l'ancien.
+     * Appelée sur le thread d'écriture, seul à modifier les classements : l'instantané est donc cohérent
+     * avec le contenu du journal. Si le remplacement échoue, le journal est rouvert tel quel et les ajouts
+     * continuent à sa suite.
+     */
+    private void compactNow() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        buffer.clear();
+        buffer.putInt(MAGIC).putShort(VERSION);
+        for (Leaderboard leaderboard : leaderboards.values()) {
+            List<GameResult> best = leaderboard.top(capacity);
+            putSummary(leaderboard.level, leaderboard.games() - best.size(), leaderboard.wins() - best.size());
+            for (GameResult result : best) {
+                putResult(result);
+            }
+        }
+        buffer.flip();
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+        channel.close();
+        try {
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // Nouveau journal ou ancien, selon que le renommage a réussi
+            channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            Files.deleteIfExists(compacted);
+        }
+        appendedSinceCompaction = 0;
+    }
+
+    private void putResult(GameResult result) {
+        int start = beginEntry(RESULT, result.getLevel(), 1 + 8 + 4 + 8 + 8);
+        buffer.put((byte) (result.isWon() ? 1 : 0))
+                .putLong(result.getElapsedMillis())
+                .putInt(result.getThreeBV())
+                .putLong(result.getSeed())
+                .putLong(result.getTimestamp());
+        endEntry(start);
+    }
+
+    private void putSummary(Level level, long games, long wins) {
+        int start = beginEntry(SUMMARY, level, 8 + 8);
+        buffer.putLong(games).putLong(wins);
+        endEntry(start);
+    }
+
+    /**
+     * Réserve la place d'une entrée, écrit sa longueur et son en-tête.
+     *
+     * @return La position du début du contenu de l'entrée.
+     */
+    private int beginEntry(byte type, Level level, int bodySize) {
+        byte[] label = level.getLabel().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 2 + label.length + 3 * 4 + bodySize;
+        if (buffer.remaining() < 4 + length + 4) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * buffer.capacity(), buffer.position() + length + 8));
+            buffer.flip();
+            buffer = larger.put(buffer);
+        }
+        buffer.putInt(length);
+        int start = buffer.position();
+        buffer.put(type)
+                .putShort((short) label.length)
+                .put(label)
+                .putInt(level.getWidth())
+                .putInt(level.getHeight())
+                .putInt(level.getMineCount());
+        return start;
+    }
+
+    private void endEntry(int start) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(start, buffer.position() - start));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private Leaderboard leaderboardOf(Level level) {
+        return leaderboards.computeIfAbsent(keyOf(level), key -> new Leaderboard(level, capacity));
+    }
+
+    private static String keyOf(Level level) {
+        return level.getLabel() + '\0' + level.getWidth() + 'x' + level.getHeight() + '/' + level.getMineCount();
+    }
+
+    /**
+     * Compteurs et meilleures victoires d'un niveau. Le tas garde la moins bonne des victoires retenues
+     * en tête : une nouvelle victoire ne coûte qu'une comparaison si elle n'entre pas au classement.
+     */
+    private static final class Leaderboard {
+        private final Level level;
+        private final int capacity;
+        private final PriorityQueue<GameResult> best;
+        private long games;
+        private long wins;
+
+        Leaderboard(Level level, int capacity) {
+            this.level = level;
+            this.capacity = capacity;
+            this.best = new PriorityQueue<>(capacity + 1, GameResult.RANKING.reversed());
+        }
+
+        synchronized void add(GameResult result) {
+            games++;
+            if (!result.isWon()) {
+                return;
+            }
+            wins++;
+            if (best.size() < capacity) {
+                best.add(result);
+            } else if (GameResult.RANKING.compare(result, best.peek()) < 0) {
+                best.poll();
+                best.add(result);
+            }
+        }
+
+        synchronized void addSummary(long games, long wins) {
+            this.games += games;
+            this.wins += wins;
+        }
+
+        synchronized List<GameResult> top(int count) {
+            List<GameResult> sorted = new ArrayList<>(best);
+            sorted.sort(GameResult.RANKING);
+            return Collections.unmodifiableList(sorted.subList(0, Math.min(Math.max(0, count), sorted.size())));
+        }
+
+        synchronized long games() {
+            return games;
+        }
+
+        synchronized long wins() {
+            return wins;
+        }
+    }
+}
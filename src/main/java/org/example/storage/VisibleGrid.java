@@ -0,0 +1,208 @@
+package org.example.storage;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Copie côté client de l'état visible d'une grille, tenue à jour par les messages d'un {@link VisibleStateEncoder}.
+ * Les codes sont conservés à raison de 4 bits par case, comme dans les messages.
+ * <p>
+ * Un instantané remplace toute la grille. Un différentiel n'est appliqué que s'il part d'un coup
+ * déjà atteint par la grille : un client qui a manqué des messages le détecte et demande un nouvel instantané.
+ */
+public class VisibleGrid {
+
+    /**
+     * Code d'une case ouverte contenant une mine. Les codes 0 à 8 désignent une case ouverte
+     * et son nombre de mines voisines.
+     */
+    public static final int MINE = 9;
+
+    /**
+     * Code d'une case fermée marquée d'un drapeau.
+     */
+    public static final int FLAG = 10;
+
+    /**
+     * Code d'une case fermée.
+     */
+    public static final int HIDDEN = 15;
+
+    private int width;
+    private int height;
+    private int cellCount;
+    private byte[] codes = new byte[0];
+    private int move = -1;
+
+    /**
+     * Applique une suite de messages mis bout à bout, jusqu'à la fin du tampon.
+     * Un différentiel déjà couvert par l'état de la grille est ignoré.
+     *
+     * @param source Les messages.
+     * @return false si un différentiel part d'un coup que la grille n'a pas encore atteint :
+     * ce message et les suivants sont ignorés, et un nouvel instantané est nécessaire.
+     * @throws IllegalArgumentException Si un message est tronqué ou invalide ; la grille peut alors
+     *                                  avoir été partiellement modifiée.
+     */
+    public boolean apply(ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                byte type = source.get();
+                if (type == VisibleStateEncoder.SNAPSHOT) {
+                    applySnapshot(source);
+                } else if (type == VisibleStateEncoder.DELTA) {
+                    if (!applyDelta(source)) {
+                        source.position(source.limit());
+                        return false;
+                    }
+                } else {
+                    throw new IllegalArgumentException("Unknown visible-state message type " + type);
+                }
+            }
+            return true;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated visible-state message", e);
+        }
+    }
+
+    /**
+     * Applique une suite de messages, comme {@link #apply(ByteBuffer)}.
+     */
+    public boolean apply(byte[] messages) {
+        return apply(ByteBuffer.wrap(messages));
+    }
+
+    private void applySnapshot(ByteBuffer source) {
+        int newWidth = getVarInt(source);
+        int newHeight = getVarInt(source);
+        int newMove = getVarInt(source);
+        if (newWidth <= 0 || newHeight <= 0) {
+            throw new IllegalArgumentException("Invalid visible-state dimensions " + newWidth + "x" + newHeight);
+        }
+        int newCellCount = Math.multiplyExact(newWidth, newHeight);
+        if (newCellCount != cellCount) {
+            codes = new byte[(newCellCount + 1) / 2];
+        }
+        width = newWidth;
+        height = newHeight;
+        cellCount = newCellCount;
+
+        int index = 0;
+        while (index < cellCount) {
+            long block = MoveJournal.getVarLong(source);
+            long length = block >>> ((block & 1) == 0 ? 5 : 1);
+            if (length == 0 || length > cellCount - index) {
+                throw new IllegalArgumentException("Corrupted visible-state snapshot");
+            }
+            int end = index + (int) length;
+            if ((block & 1) == 0) {
+                fill(index, end, (int) (block >>> 1) & 0x0F);
+            } else {
+                for (int cell = index; cell < end; cell += 2) {
+                    int pair = source.get();
+                    setCode(cell, pair & 0x0F);
+                    if (cell + 1 < end) {
+                        setCode(cell + 1, pair >>> 4 & 0x0F);
+                    }
+                }
+            }
+            index = end;
+        }
+        move = newMove;
+    }
+
+    private boolean applyDelta(ByteBuffer source) {
+        int fromMove = getVarInt(source);
+        int toMove = getVarInt(source);
+        int count = getVarInt(source);
+        // Les codes suivent tous les écarts : le message est d'abord parcouru jusqu'au bout
+        ByteBuffer gaps = source.duplicate();
+        for (int i = 0; i < count; i++) {
+            MoveJournal.getVarLong(source);
+        }
+        int codesPosition = source.position();
+        source.position(codesPosition + (count + 1) / 2);
+        if (move < 0 || fromMove > move) {
+            return false;
+        }
+        if (toMove <= move) {
+            return true;
+        }
+
+        long index = -1;
+        for (int i = 0; i < count; i++) {
+            index += MoveJournal.getVarLong(gaps) + 1;
+            if (index >= cellCount) {
+                throw new IllegalArgumentException("Corrupted visible-state delta");
+            }
+            int pair = source.get(codesPosition + i / 2);
+            setCode((int) index, (i & 1) == 0 ? pair & 0x0F : pair >>> 4 & 0x0F);
+        }
+        move = toMove;
+        return true;
+    }
+
+    private static int getVarInt(ByteBuffer source) {
+        long value = MoveJournal.getVarLong(source);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Corrupted visible-state message");
+        }
+        return (int) value;
+    }
+
+    private void setCode(int index, int code) {
+        int shift = (index & 1) << 2;
+        int slot = index >> 1;
+        codes[slot] = (byte) (codes[slot] & ~(0x0F << shift) | code << shift);
+    }
+
+    /**
+     * Affecte le même code aux cases {@code [from, to)}, octet par octet hors des extrémités.
+     */
+    private void fill(int from, int to, int code) {
+        if ((from & 1) != 0 && from < to) {
+            setCode(from++, code);
+        }
+        if ((to & 1) != 0 && from < to) {
+            setCode(--to, code);
+        }
+        Arrays.fill(codes, from >> 1, to >> 1, (byte) (code | code << 4));
+    }
+
+    /**
+     * @return true dès qu'un instantané a été appliqué.
+     */
+    public boolean isReady() {
+        return move >= 0;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Le numéro du coup atteint, ou -1 avant le premier instantané.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * @return Le code visible de la case d'indice {@code y * width + x}.
+     */
+    public int getCode(int index) {
+        return codes[index >> 1] >> ((index & 1) << 2) & 0x0F;
+    }
+
+    /**
+     * @return Le code visible de la case (x, y).
+     */
+    public int getCode(int x, int y) {
+        return getCode(y * width + x);
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.storage;
+
+import org.example.models.Board;
+import org.example.models.RevealFieldsResult;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encodage compact de l'état visible d'une grille, destiné aux spectateurs, aux clients distants
+ * ou aux miniatures de parties enregistrées, sans parcourir les cases sous forme d'objets {@link org.example.models.Field}.
+ * <p>
+ * Chaque case est représentée par un code de 4 bits : son nombre de mines voisines si elle est ouverte,
+ * sinon {@link VisibleGrid#HIDDEN}, {@link VisibleGrid#FLAG} ou {@link VisibleGrid#MINE}. Deux messages sont produits :
+ * <ul>
+ *     <li>l'instantané décrit toute la grille. Une plage d'au moins {@value #MIN_RUN} cases de même code,
+ *     typiquement une zone encore fermée, tient en un seul entier de taille variable quelle que soit sa longueur ;
+ *     les autres cases sont écrites telles quelles, deux par octet ;</li>
+ *     <li>le différentiel entre deux numéros de coup ne contient que les cases modifiées, triées par indice :
+ *     l'écart avec la case précédente, puis les codes, deux par octet. Sa taille est proportionnelle au nombre
+ *     de cases modifiées, quelle que soit la taille de la grille.</li>
+ * </ul>
+ * Un message est encodé une fois et peut être envoyé tel quel à tous les spectateurs ;
+ * {@link VisibleGrid} l'applique côté client. Les messages peuvent être mis bout à bout.
+ *
+ * <pre>
+ * instantané   : byte 1, varint largeur, varint hauteur, varint coup,
+ *                puis des blocs couvrant la grille dans l'ordre des indices :
+ *                varint (longueur << 5 | code << 1) pour une plage,
+ *                varint (longueur << 1 | 1) suivi de (longueur + 1) / 2 octets de codes pour des cases isolées
+ * différentiel : byte 2, varint coup de départ, varint coup d'arrivée, varint nombre de cases,
+ *                un varint d'écart par case (indice moins indice précédent moins 1, ou indice pour la première),
+ *                puis (nombre + 1) / 2 octets de codes
+ * </pre>
+ * Dans chaque octet de codes, la première des deux cases occupe les 4 bits de poids faible.
+ * Un encodeur n'est pas partagé entre threads : il est utilisé sous le verrou qui protège sa grille.
+ */
+public class VisibleStateEncoder {
+
+    static final byte SNAPSHOT = 1;
+    static final byte DELTA = 2;
+
+    // Longueur minimale d'une plage : en deçà, écrire les cases telles quelles est au moins aussi court
+    static final int MIN_RUN = 8;
+
+    // Taille maximale d'un entier de taille variable de 64 bits
+    private static final int MAX_VARINT_SIZE = 10;
+
+    private final Board board;
+
+    // Cases modifiées depuis le dernier différentiel, dans un ordre quelconque et avec doublons éventuels
+    private int[] changed = new int[64];
+    private int changedCount;
+
+    // Tampon de sortie, conservé d'un message à l'autre
+    private ByteBuffer output = ByteBuffer.allocate(256);
+
+    /**
+     * @param board La grille dont l'état visible est encodé.
+     * @throws IllegalArgumentException Si une case de la grille peut avoir plus de 8 voisines minées,
+     *                                  ce qui ne tient pas dans un code de 4 bits.
+     */
+    public VisibleStateEncoder(Board board) {
+        if (board.getTopology().getMaxDegree() > 8) {
+            throw new IllegalArgumentException("Visible state codes hold at most 8 neighbour mines: " + board.getTopology());
+        }
+        this.board = board;
+    }
+
+    /**
+     * @return Le code visible de la case d'indice donné.
+     */
+    public static int code(Board board, int index) {
+        if (board.isOpened(index)) {
+            return board.hasMine(index) ? VisibleGrid.MINE : board.getNeighbourMineCount(index);
+        }
+        return board.hasFlag(index) ? VisibleGrid.FLAG : VisibleGrid.HIDDEN;
+    }
+
+    /**
+     * Encode l'état visible de toute la grille. Les cases modifiées en attente ne sont pas touchées.
+     *
+     * @param move Le numéro du coup après lequel l'instantané est pris.
+     * @return Le message.
+     */
+    public byte[] snapshot(int move) {
+        int cellCount = board.getCellCount();
+        reserve(1 + 3 * MAX_VARINT_SIZE);
+        output.put(SNAPSHOT);
+        MoveJournal.putVarLong(output, board.getWidth());
+        MoveJournal.putVarLong(output, board.getHeight());
+        MoveJournal.putVarLong(output, move);
+
+        int literalStart = 0;
+        int index = 0;
+        while (index < cellCount) {
+            int code = code(board, index);
+            int end = index + 1;
+            while (end < cellCount && code(board, end) == code) {
+                end++;
+            }
+            if (end - index >= MIN_RUN) {
+                putLiteral(literalStart, index);
+                reserve(MAX_VARINT_SIZE);
+                MoveJournal.putVarLong(output, (long) (end - index) << 5 | code << 1);
+                literalStart = end;
+            }
+            index = end;
+        }
+        putLiteral(literalStart, cellCount);
+        return finish();
+    }
+
+    private void putLiteral(int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return;
+        }
+        reserve(MAX_VARINT_SIZE + (length + 1) / 2);
+        MoveJournal.putVarLong(output, (long) length << 1 | 1);
+        for (int index = from; index < to; index += 2) {
+            int high = index + 1 < to ? code(board, index + 1) : 0;
+            output.put((byte) (code(board, index) | high << 4));
+        }
+    }
+
+    /**
+     * Note les cases ouvertes par un coup, pour le prochain {@link #delta(int, int)}.
+     *
+     * @param result Le résultat du coup.
+     */
+    public void add(RevealFieldsResult result) {
+        int count = result.getRevealedCount();
+        for (int position = 0; position < count; position++) {
+            add(result.getRevealedIndex(position));
+        }
+    }
+
+    /**
+     * Note une case modifiée, par exemple par la pose d'un drapeau, pour le prochain {@link #delta(int, int)}.
+     *
+     * @param index L'indice de la case.
+     */
+    public void add(int index) {
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, 2 * changed.length);
+        }
+        changed[changedCount++] = index;
+    }
+
+    /**
+     * @return Le nombre de cases notées depuis le dernier différentiel, doublons compris.
+     */
+    public int getPendingCount() {
+        return changedCount;
+    }
+
+    /**
+     * Encode l'état actuel des cases notées depuis le dernier différentiel, puis les oublie.
+     *
+     * @param fromMove Le numéro du coup auquel le client doit se trouver pour appliquer le message.
+     * @param toMove   Le numéro du coup atteint après application.
+     * @return Le message.
+     */
+    public byte[] delta(int fromMove, int toMove) {
+        Arrays.sort(changed, 0, changedCount);
+        int count = 0;
+        for (int i = 0; i < changedCount; i++) {
+            if (count == 0 || changed[i] != changed[count - 1]) {
+                changed[count++] = changed[i];
+            }
+        }
+        changedCount = 0;
+
+        reserve(1 + 3 * MAX_VARINT_SIZE + count * 5 + (count + 1) / 2);
+        output.put(DELTA);
+        MoveJournal.putVarLong(output, fromMove);
+        MoveJournal.putVarLong(output, toMove);
+        MoveJournal.putVarLong(output, count);
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            MoveJournal.putVarLong(output, changed[i] - previous - 1);
+            previous = changed[i];
+        }
+        for (int i = 0; i < count; i += 2) {
+            int high = i + 1 < count ? code(board, changed[i + 1]) : 0;
+            output.put((byte) (code(board, changed[i]) | high << 4));
+        }
+        return finish();
+    }
+
+    private void reserve(int bytes) {
+        if (output.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * output.capacity(), output.position() + bytes));
+            output.flip();
+            output = larger.put(output);
+        }
+    }
+
+    private byte[] finish() {
+        byte[] message = Arrays.copyOf(output.array(), output.position());
+        output.clear();
+        return message;
+    }
+}